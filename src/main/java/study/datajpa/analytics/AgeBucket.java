@@ -0,0 +1,7 @@
+package study.datajpa.analytics;
+
+/**
+ * fromAge 이상 toAge 이하인 회원 수.
+ */
+public record AgeBucket(int fromAge, int toAge, long count) {
+}
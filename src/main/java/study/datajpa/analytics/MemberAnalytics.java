@@ -0,0 +1,414 @@
+package study.datajpa.analytics;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.TeamStatsDto;
+import study.datajpa.event.EntityChangeType;
+import study.datajpa.event.MemberAgeBulkIncreasedEvent;
+import study.datajpa.event.MemberChangedEvent;
+import study.datajpa.event.MemberState;
+import study.datajpa.event.TeamChangedEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 회원 나이, 팀 집계를 DB 대신 메모리의 열 저장소(MemberColumns)에서 계산한다.
+ * 기동 시 DB에서 한 번 채우고, 이후에는 회원, 팀 변경 이벤트를 커밋 후에 반영한다.
+ * 이벤트를 거치지 않은 변경(JDBC 직접 수정 등)은 analytics.rebuild-interval마다 다시 읽어 바로잡는다.
+ * <p>
+ * 집계는 기본형 배열을 분기 없이 훑는 루프로 쓰고, 행이 analytics.parallel-threshold개를 넘으면
+ * 구간을 나눠 fork-join으로 병렬 스캔한 뒤 부분 결과를 합친다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "analytics", name = "enabled", havingValue = "true")
+public class MemberAnalytics {
+
+    private static final int ANY_TEAM = -2;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private MemberColumns columns = new MemberColumns();
+    private List<Consumer<MemberColumns>> replay;
+    private boolean bulkDuringRebuild;
+    private volatile boolean ready;
+
+    public MemberAnalytics(JdbcTemplate jdbcTemplate,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${analytics.parallelism:0}") int parallelism,
+                           @Value("${analytics.parallel-threshold:65536}") int parallelThreshold) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.parallelThreshold = Math.max(1024, parallelThreshold);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return columns.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * minAge 이상 maxAge 이하인 회원 수.
+     */
+    public long count(int minAge, int maxAge) {
+        return read(columns -> scan(columns, () -> new long[1], (acc, c, from, to) -> {
+            int[] ages = c.ages;
+            long count = 0;
+            for (int i = from; i < to; i++) {
+                int age = ages[i];
+                count += age >= minAge & age <= maxAge ? 1 : 0;
+            }
+            acc[0] += count;
+        }, MemberAnalytics::sum)[0]);
+    }
+
+    public long countByUsername(String username) {
+        return read(columns -> {
+            int code = columns.existingUsernameCode(username);
+            if (code < 0) {
+                return 0L;
+            }
+            return scan(columns, () -> new long[1], (acc, c, from, to) -> {
+                int[] codes = c.usernameCodes;
+                long count = 0;
+                for (int i = from; i < to; i++) {
+                    count += codes[i] == code ? 1 : 0;
+                }
+                acc[0] += count;
+            }, MemberAnalytics::sum)[0];
+        });
+    }
+
+    /**
+     * width살 단위 나이대별 회원 수. teamId가 null이면 전체 회원이다. 회원이 없는 나이대도 0으로 포함한다.
+     */
+    public List<AgeBucket> ageHistogram(int width, Long teamId) {
+        if (width <= 0) {
+            throw new IllegalArgumentException("width must be positive: " + width);
+        }
+        return read(columns -> {
+            int team = teamId == null ? ANY_TEAM : columns.existingTeamCode(teamId);
+            int buckets = columns.maxAge / width + 1;
+            long[] counts = team == -1 ? new long[buckets] : scan(columns, () -> new long[buckets], (acc, c, from, to) -> {
+                int[] ages = c.ages;
+                int[] teams = c.teamCodes;
+                for (int i = from; i < to; i++) {
+                    if ((team == ANY_TEAM || teams[i] == team) && ages[i] >= 0) {
+                        acc[ages[i] / width]++;
+                    }
+                }
+            }, MemberAnalytics::sum);
+            List<AgeBucket> histogram = new ArrayList<>(buckets);
+            for (int i = 0; i < buckets; i++) {
+                histogram.add(new AgeBucket(i * width, (i + 1) * width - 1, counts[i]));
+            }
+            return histogram;
+        });
+    }
+
+    /**
+     * TeamRepository.findTeamStats()와 같은 결과를 메모리에서 계산한다.
+     */
+    public List<TeamStatsDto> teamStats() {
+        return teamStats(Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 나이가 minAge 이상 maxAge 이하인 회원만 팀별로 집계한다. 해당 회원이 없는 팀도 회원 수 0으로 포함한다.
+     */
+    public List<TeamStatsDto> teamStats(int minAge, int maxAge) {
+        return read(columns -> {
+            int teams = columns.teamCodeCount();
+            TeamAggregate aggregate = scan(columns, () -> new TeamAggregate(teams), (acc, c, from, to) -> {
+                int[] ages = c.ages;
+                int[] codes = c.teamCodes;
+                for (int i = from; i < to; i++) {
+                    int age = ages[i];
+                    if (age >= minAge & age <= maxAge) {
+                        int code = codes[i];
+                        acc.count[code]++;
+                        acc.sum[code] += age;
+                        acc.min[code] = Math.min(acc.min[code], age);
+                        acc.max[code] = Math.max(acc.max[code], age);
+                    }
+                }
+            }, TeamAggregate::merge);
+
+            List<TeamStatsDto> stats = new ArrayList<>(columns.teamNames.size());
+            for (Map.Entry<Long, String> team : new TreeMap<>(columns.teamNames).entrySet()) {
+                int code = columns.existingTeamCode(team.getKey());
+                if (code < 0 || aggregate.count[code] == 0) {
+                    stats.add(new TeamStatsDto(team.getKey(), team.getValue(), 0L, null, null, null));
+                } else {
+                    stats.add(new TeamStatsDto(team.getKey(), team.getValue(), aggregate.count[code],
+                            (double) aggregate.sum[code] / aggregate.count[code], aggregate.min[code], aggregate.max[code]));
+                }
+            }
+            return stats;
+        });
+    }
+
+    @EventListener
+    public void on(MemberChangedEvent event) {
+        if (event.memberId() == null) {
+            return;
+        }
+        long memberId = event.memberId();
+        MemberState state = event.state();
+        if (event.type() == EntityChangeType.DELETED) {
+            afterCommit(columns -> columns.remove(memberId));
+        } else {
+            afterCommit(columns -> columns.put(memberId, state));
+        }
+    }
+
+    @EventListener
+    public void on(TeamChangedEvent event) {
+        if (event.teamId() == null) {
+            return;
+        }
+        if (event.type() == EntityChangeType.DELETED) {
+            afterCommit(columns -> columns.teamNames.remove(event.teamId()));
+        } else {
+            afterCommit(columns -> columns.teamNames.put(event.teamId(), event.name()));
+        }
+    }
+
+    @EventListener
+    public void on(MemberAgeBulkIncreasedEvent event) {
+        if (event.updatedCount() == 0) {
+            return;
+        }
+        afterCommit(columns -> {
+            columns.increaseAges(event.minAge());
+            if (replay != null) {
+                bulkDuringRebuild = true;
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+        ready = true;
+    }
+
+    /**
+     * DB에서 새 열 저장소를 만들어 바꿔 끼운다. 읽는 동안 커밋된 변경은 새 저장소에 다시 반영한다.
+     * 회원 단위 변경은 여러 번 반영해도 같지만 벌크 나이 증가는 아니므로, 읽는 도중 벌크 수정이 있었으면 다시 읽는다.
+     */
+    @Scheduled(initialDelayString = "${analytics.rebuild-interval:3600000}", fixedDelayString = "${analytics.rebuild-interval:3600000}")
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        for (int attempt = 1; ; attempt++) {
+            write(() -> {
+                replay = new ArrayList<>();
+                bulkDuringRebuild = false;
+            });
+            MemberColumns fresh = transactionTemplate.execute(status -> readColumns());
+            boolean swapped = write(() -> {
+                List<Consumer<MemberColumns>> changes = replay;
+                replay = null;
+                if (bulkDuringRebuild) {
+                    return false;
+                }
+                changes.forEach(change -> change.accept(fresh));
+                columns = fresh;
+                return true;
+            });
+            if (swapped || attempt == 3) {
+                break;
+            }
+        }
+        log.info("Loaded {} members into analytics columns in {}ms", size(), System.currentTimeMillis() - start);
+    }
+
+    private MemberColumns readColumns() {
+        MemberColumns fresh = new MemberColumns();
+        Long count = jdbcTemplate.queryForObject("select count(*) from member where deleted_at is null", Long.class);
+        fresh.reserve(count != null ? count.intValue() : 0);
+        jdbcTemplate.query("select team_id, name from team where deleted_at is null", rs -> {
+            fresh.teamNames.put(rs.getLong(1), rs.getString(2));
+        });
+        jdbcTemplate.query("select member_id, username, age, team_id from member where deleted_at is null", rs -> {
+            fresh.put(rs.getLong(1), new MemberState(rs.getString(2), rs.getInt(3), rs.getObject(4, Long.class)));
+        });
+        return fresh;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private void afterCommit(Consumer<MemberColumns> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(change);
+            }
+        });
+    }
+
+    private void apply(Consumer<MemberColumns> change) {
+        write(() -> {
+            change.accept(columns);
+            if (replay != null) {
+                replay.add(change);
+            }
+            return null;
+        });
+    }
+
+    private <T> T write(Supplier<T> action) {
+        lock.writeLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void write(Runnable action) {
+        write(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private <T> T read(Function<MemberColumns, T> query) {
+        if (!ready) {
+            throw new IllegalStateException("Member analytics is not loaded yet");
+        }
+        lock.readLock().lock();
+        try {
+            return query.apply(columns);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 행 구간을 parallelThreshold 이하가 될 때까지 반으로 나눠 병렬로 훑고 부분 결과를 합친다.
+     * 호출한 스레드가 읽기 락을 쥐고 기다리므로 스캔 중에는 배열이 바뀌지 않는다.
+     */
+    private <A> A scan(MemberColumns columns, Supplier<A> identity, RangeScan<A> leaf, BinaryOperator<A> combine) {
+        if (columns.size <= parallelThreshold) {
+            A acc = identity.get();
+            leaf.scan(acc, columns, 0, columns.size);
+            return acc;
+        }
+        return pool.invoke(new ScanTask<>(columns, 0, columns.size, identity, leaf, combine));
+    }
+
+    @FunctionalInterface
+    private interface RangeScan<A> {
+        void scan(A acc, MemberColumns columns, int from, int to);
+    }
+
+    private class ScanTask<A> extends RecursiveTask<A> {
+
+        private final MemberColumns columns;
+        private final int from;
+        private final int to;
+        private final Supplier<A> identity;
+        private final RangeScan<A> leaf;
+        private final BinaryOperator<A> combine;
+
+        ScanTask(MemberColumns columns, int from, int to, Supplier<A> identity, RangeScan<A> leaf, BinaryOperator<A> combine) {
+            this.columns = columns;
+            this.from = from;
+            this.to = to;
+            this.identity = identity;
+            this.leaf = leaf;
+            this.combine = combine;
+        }
+
+        @Override
+        protected A compute() {
+            if (to - from <= parallelThreshold) {
+                A acc = identity.get();
+                leaf.scan(acc, columns, from, to);
+                return acc;
+            }
+            int middle = (from + to) >>> 1;
+            ScanTask<A> left = new ScanTask<>(columns, from, middle, identity, leaf, combine);
+            left.fork();
+            A right = new ScanTask<>(columns, middle, to, identity, leaf, combine).compute();
+            return combine.apply(left.join(), right);
+        }
+    }
+
+    private static long[] sum(long[] a, long[] b) {
+        for (int i = 0; i < a.length; i++) {
+            a[i] += b[i];
+        }
+        return a;
+    }
+
+    private static class TeamAggregate {
+        final long[] count;
+        final long[] sum;
+        final int[] min;
+        final int[] max;
+
+        TeamAggregate(int teams) {
+            count = new long[teams];
+            sum = new long[teams];
+            min = new int[teams];
+            max = new int[teams];
+            Arrays.fill(min, Integer.MAX_VALUE);
+            Arrays.fill(max, Integer.MIN_VALUE);
+        }
+
+        TeamAggregate merge(TeamAggregate other) {
+            for (int i = 0; i < count.length; i++) {
+                count[i] += other.count[i];
+                sum[i] += other.sum[i];
+                min[i] = Math.min(min[i], other.min[i]);
+                max[i] = Math.max(max[i], other.max[i]);
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package study.datajpa.analytics;
+
+import study.datajpa.event.MemberState;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 회원을 열 단위 기본형 배열로 담는다. 행 순서에는 의미가 없고 삭제된 행 자리는 마지막 행으로 채워 빈틈이 없다.
+ * username과 팀 id는 사전 코드(int)로 바꿔 담는다. 팀 코드 0은 팀 없음이다.
+ * 동기화는 MemberAnalytics가 맡는다.
+ */
+class MemberColumns {
+
+    static final int NO_TEAM = 0;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    long[] memberIds = new long[INITIAL_CAPACITY];
+    int[] ages = new int[INITIAL_CAPACITY];
+    int[] teamCodes = new int[INITIAL_CAPACITY];
+    int[] usernameCodes = new int[INITIAL_CAPACITY];
+    int size;
+    int maxAge;
+
+    private final Map<Long, Integer> rowByMemberId = new HashMap<>();
+    private final Map<String, Integer> usernameCode = new HashMap<>();
+    private final List<String> usernames = new ArrayList<>();
+    private final Map<Long, Integer> teamCode = new HashMap<>();
+    private final List<Long> teamIds = new ArrayList<>();
+    final Map<Long, String> teamNames = new HashMap<>();
+
+    MemberColumns() {
+        teamIds.add(null);
+    }
+
+    void reserve(int expected) {
+        if (expected > memberIds.length) {
+            resize(expected);
+        }
+    }
+
+    /**
+     * 없으면 추가하고 있으면 덮어쓴다. 같은 변경을 두 번 반영해도 결과가 같다.
+     */
+    void put(long memberId, MemberState state) {
+        Integer row = rowByMemberId.get(memberId);
+        if (row == null) {
+            if (size == memberIds.length) {
+                resize(size * 2);
+            }
+            row = size++;
+            rowByMemberId.put(memberId, row);
+            memberIds[row] = memberId;
+        }
+        ages[row] = state.age();
+        teamCodes[row] = teamCode(state.teamId());
+        usernameCodes[row] = usernameCode(state.username());
+        maxAge = Math.max(maxAge, state.age());
+    }
+
+    void remove(long memberId) {
+        Integer row = rowByMemberId.remove(memberId);
+        if (row == null) {
+            return;
+        }
+        int last = --size;
+        if (row != last) {
+            memberIds[row] = memberIds[last];
+            ages[row] = ages[last];
+            teamCodes[row] = teamCodes[last];
+            usernameCodes[row] = usernameCodes[last];
+            rowByMemberId.put(memberIds[row], row);
+        }
+    }
+
+    /**
+     * 벌크 수정 "age >= minAge 이면 age + 1"을 그대로 적용한다.
+     */
+    void increaseAges(int minAge) {
+        int[] ages = this.ages;
+        for (int i = 0; i < size; i++) {
+            ages[i] += ages[i] >= minAge ? 1 : 0;
+        }
+        if (maxAge >= minAge) {
+            maxAge++;
+        }
+    }
+
+    int teamCode(Long teamId) {
+        if (teamId == null) {
+            return NO_TEAM;
+        }
+        return teamCode.computeIfAbsent(teamId, id -> {
+            teamIds.add(id);
+            return teamIds.size() - 1;
+        });
+    }
+
+    /**
+     * 조회용. 사전에 없으면 -1이다.
+     */
+    int existingTeamCode(Long teamId) {
+        if (teamId == null) {
+            return NO_TEAM;
+        }
+        return teamCode.getOrDefault(teamId, -1);
+    }
+
+    int existingUsernameCode(String username) {
+        return usernameCode.getOrDefault(username, -1);
+    }
+
+    int teamCodeCount() {
+        return teamIds.size();
+    }
+
+    Long teamId(int code) {
+        return teamIds.get(code);
+    }
+
+    private int usernameCode(String username) {
+        return usernameCode.computeIfAbsent(username, name -> {
+            usernames.add(name);
+            return usernames.size() - 1;
+        });
+    }
+
+    private void resize(int capacity) {
+        memberIds = Arrays.copyOf(memberIds, capacity);
+        ages = Arrays.copyOf(ages, capacity);
+        teamCodes = Arrays.copyOf(teamCodes, capacity);
+        usernameCodes = Arrays.copyOf(usernameCodes, capacity);
+    }
+}
@@ -0,0 +1,28 @@
+package study.datajpa.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.search.backend.lucene.cfg.LuceneBackendSettings;
+import org.hibernate.search.engine.cfg.BackendSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import study.datajpa.entity.AuditClock;
+import study.datajpa.entity.MemberSearchAnalysisConfigurer;
+
+@Configuration
+public class HibernateConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer auditClockInterceptor(AuditClock auditClock) {
+        return properties -> properties.put(AvailableSettings.INTERCEPTOR, auditClock);
+    }
+
+    /**
+     * 클래스 이름으로 지정하면 백그라운드 부트스트랩 스레드가 스프링 빈 컨테이너를 거치며 기동이 멈출 수 있어 인스턴스로 넘긴다.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer searchAnalysisConfigurer() {
+        return properties -> properties.put(BackendSettings.backendKey(LuceneBackendSettings.ANALYSIS_CONFIGURER),
+                new MemberSearchAnalysisConfigurer());
+    }
+}
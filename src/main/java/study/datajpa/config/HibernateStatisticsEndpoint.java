@@ -0,0 +1,104 @@
+package study.datajpa.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CollectionStatistics;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * /actuator/hibernate 로 Hibernate Statistics를 엔티티, 컬렉션, 쿼리별로 보여준다.
+ * 쿼리는 누적 실행 시간이 긴 순서다. DELETE 요청으로 카운터를 초기화한다.
+ */
+@Component
+@RequiredArgsConstructor
+@Endpoint(id = "hibernate")
+public class HibernateStatisticsEndpoint {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @ReadOperation
+    public StatisticsReport statistics() {
+        Statistics statistics = hibernateStatistics();
+
+        Map<String, EntityReport> entities = new TreeMap<>();
+        for (String name : statistics.getEntityNames()) {
+            EntityStatistics entity = statistics.getEntityStatistics(name);
+            entities.put(name, new EntityReport(entity.getLoadCount(), entity.getFetchCount(),
+                    entity.getInsertCount(), entity.getUpdateCount(), entity.getDeleteCount()));
+        }
+
+        Map<String, CollectionReport> collections = new TreeMap<>();
+        for (String role : statistics.getCollectionRoleNames()) {
+            CollectionStatistics collection = statistics.getCollectionStatistics(role);
+            collections.put(role, new CollectionReport(collection.getLoadCount(), collection.getFetchCount(),
+                    collection.getRecreateCount(), collection.getUpdateCount(), collection.getRemoveCount()));
+        }
+
+        Map<String, QueryReport> queries = new LinkedHashMap<>();
+        Arrays.stream(statistics.getQueries())
+                .map(query -> Map.entry(query, statistics.getQueryStatistics(query)))
+                .sorted(Comparator.comparingLong((Map.Entry<String, QueryStatistics> entry) ->
+                        entry.getValue().getExecutionTotalTime()).reversed())
+                .forEach(entry -> {
+                    QueryStatistics query = entry.getValue();
+                    queries.put(entry.getKey(), new QueryReport(query.getExecutionCount(), query.getExecutionRowCount(),
+                            query.getExecutionTotalTime(), query.getExecutionAvgTime(), query.getExecutionMaxTime()));
+                });
+
+        return new StatisticsReport(
+                statistics.isStatisticsEnabled(),
+                statistics.getStart(),
+                statistics.getSessionOpenCount(),
+                statistics.getTransactionCount(),
+                statistics.getPrepareStatementCount(),
+                statistics.getQueryExecutionCount(),
+                statistics.getQueryExecutionMaxTimeQueryString(),
+                statistics.getQueryExecutionMaxTime(),
+                statistics.getEntityLoadCount(),
+                statistics.getEntityFetchCount(),
+                statistics.getCollectionLoadCount(),
+                statistics.getCollectionFetchCount(),
+                entities,
+                collections,
+                queries);
+    }
+
+    @DeleteOperation
+    public void clear() {
+        hibernateStatistics().clear();
+    }
+
+    private Statistics hibernateStatistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    public record StatisticsReport(boolean enabled, Instant start, long sessions, long transactions,
+                                   long statements, long queries, String slowestQuery, long slowestQueryTime,
+                                   long entityLoads, long entityFetches, long collectionLoads, long collectionFetches,
+                                   Map<String, EntityReport> entity, Map<String, CollectionReport> collection,
+                                   Map<String, QueryReport> query) {
+    }
+
+    public record EntityReport(long loads, long fetches, long inserts, long updates, long deletes) {
+    }
+
+    public record CollectionReport(long loads, long fetches, long recreates, long updates, long removes) {
+    }
+
+    public record QueryReport(long executions, long rows, long totalTime, long averageTime, long maxTime) {
+    }
+}
@@ -0,0 +1,123 @@
+package study.datajpa.config;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.Table;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.mapping.PropertyPath;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.data.repository.support.Repositories;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 메소드 이름으로 생성되는 쿼리의 조건 컬럼이 @Table(indexes)의 선두 컬럼으로 잡혀있는지 검사한다.
+ * 인덱스가 없는 쿼리 메소드는 기동 시 경고 로그로 남긴다.
+ * 모든 리포지토리를 초기화하므로 lazy 기동 시에는 jpa.index-validation.enabled=false로 끈다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "jpa.index-validation", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class IndexCoverageValidator {
+
+    private final ApplicationContext applicationContext;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warnUncoveredQueries() {
+        for (String uncovered : validate()) {
+            log.warn("No index supports derived query {}", uncovered);
+        }
+    }
+
+    public List<String> validate() {
+        Repositories repositories = new Repositories(applicationContext);
+        List<String> uncovered = new ArrayList<>();
+
+        for (Class<?> domainType : repositories) {
+            RepositoryInformation information = repositories.getRequiredRepositoryInformation(domainType);
+            Set<String> leadingColumns = leadingIndexColumns(domainType);
+
+            for (Method method : information.getQueryMethods()) {
+                if (AnnotatedElementUtils.hasAnnotation(method, Query.class)) {
+                    continue;
+                }
+                PartTree tree;
+                try {
+                    tree = new PartTree(method.getName(), domainType);
+                } catch (RuntimeException e) {
+                    continue;
+                }
+                for (PartTree.OrPart orPart : tree) {
+                    List<String> columns = orPart.stream()
+                            .map(part -> columnName(domainType, part))
+                            .toList();
+                    if (!columns.isEmpty() && columns.stream().noneMatch(leadingColumns::contains)) {
+                        uncovered.add(information.getRepositoryInterface().getSimpleName()
+                                + "." + method.getName() + " " + columns);
+                    }
+                }
+            }
+        }
+        return uncovered;
+    }
+
+    private Set<String> leadingIndexColumns(Class<?> domainType) {
+        Set<String> columns = new HashSet<>();
+        Table table = domainType.getAnnotation(Table.class);
+        if (table != null) {
+            for (Index index : table.indexes()) {
+                String leading = index.columnList().split(",")[0].trim();
+                columns.add(leading.toLowerCase(Locale.ROOT));
+            }
+        }
+        ReflectionUtils.doWithFields(domainType, field -> columns.add(columnName(field)),
+                field -> field.isAnnotationPresent(Id.class));
+        return columns;
+    }
+
+    private String columnName(Class<?> domainType, Part part) {
+        PropertyPath property = part.getProperty();
+        Field field = ReflectionUtils.findField(domainType, property.getSegment());
+        if (field == null) {
+            return property.getSegment().toLowerCase(Locale.ROOT);
+        }
+        return columnName(field);
+    }
+
+    private String columnName(Field field) {
+        JoinColumn joinColumn = field.getAnnotation(JoinColumn.class);
+        if (joinColumn != null && StringUtils.hasText(joinColumn.name())) {
+            return joinColumn.name().toLowerCase(Locale.ROOT);
+        }
+        Column column = field.getAnnotation(Column.class);
+        if (column != null && StringUtils.hasText(column.name())) {
+            return column.name().toLowerCase(Locale.ROOT);
+        }
+        return Arrays.stream(field.getName().split("(?=[A-Z])"))
+                .map(segment -> segment.toLowerCase(Locale.ROOT))
+                .reduce((left, right) -> left + "_" + right)
+                .orElse(field.getName());
+    }
+}
@@ -0,0 +1,141 @@
+package study.datajpa.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.lookup.UsernameIndex;
+import study.datajpa.summary.TeamSummaryChecker;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * 샘플 회원, 팀 데이터를 JDBC 배치 insert로 적재한다.
+ * seed.enabled=true 일 때만 동작하고, 회원 테이블이 비어있을 때만 적재한다.
+ * <p>
+ * 같은 seed.random-seed면 항상 같은 데이터가 만들어진다.
+ * 팀 소속은 Zipf 분포(seed.team-skew)를 따라 일부 팀에 회원이 몰리고, 나이는 30대 초반에 몰린다.
+ * 엔티티 이벤트를 거치지 않으므로 팀 회원 수와 팀 집계는 적재 후 다시 계산하고 username 인덱스는 stale로 표시한다.
+ */
+@Slf4j
+@Component
+@Order(1)
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "seed", name = "enabled", havingValue = "true")
+public class MemberDataInitializer implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TeamSummaryChecker teamSummaryChecker;
+    private final UsernameIndex usernameIndex;
+
+    @Value("${seed.members:100}")
+    private int members;
+
+    @Value("${seed.teams:0}")
+    private int teams;
+
+    @Value("${seed.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${seed.random-seed:42}")
+    private long randomSeed;
+
+    @Value("${seed.team-skew:1.0}")
+    private double teamSkew;
+
+    @Value("${seed.no-team-ratio:0.1}")
+    private double noTeamRatio;
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        Long count = jdbcTemplate.queryForObject("select count(*) from member", Long.class);
+        if (count != null && count > 0) {
+            log.info("Skip seeding, member table already has {} rows", count);
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        SplittableRandom random = new SplittableRandom(randomSeed);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        long[] teamIds = insertTeams();
+        double[] cumulative = zipf(teamIds.length, teamSkew);
+
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < members; i++) {
+            Long teamId = teamIds.length == 0 || random.nextDouble() < noTeamRatio
+                    ? null : teamIds[pick(cumulative, random.nextDouble())];
+            batch.add(new Object[]{"user" + i, age(random), teamId, now, now});
+            if (batch.size() == batchSize) {
+                insert(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            insert(batch);
+        }
+        usernameIndex.markStale();
+
+        if (teamIds.length > 0) {
+            jdbcTemplate.update("update team t set member_count = (select count(*) from member m where m.team_id = t.team_id and m.deleted_at is null)");
+            teamSummaryChecker.repair();
+        }
+        log.info("Seeded {} members in {} teams in {}ms", members, teamIds.length, System.currentTimeMillis() - start);
+    }
+
+    private long[] insertTeams() {
+        if (teams <= 0) {
+            return new long[0];
+        }
+        List<Object[]> rows = new ArrayList<>(teams);
+        for (int i = 0; i < teams; i++) {
+            rows.add(new Object[]{"team" + i});
+        }
+        jdbcTemplate.batchUpdate("insert into team (name, member_count) values (?, 0)", rows);
+        List<Long> ids = jdbcTemplate.queryForList(
+                "select team_id from team order by team_id desc limit ?", Long.class, teams);
+        return ids.stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+
+    private void insert(List<Object[]> batch) {
+        jdbcTemplate.batchUpdate(
+                "insert into member (username, age, team_id, created_date, last_modified_date) values (?, ?, ?, ?, ?)",
+                batch);
+    }
+
+    /**
+     * 순위 k인 팀이 1/k^skew에 비례해 뽑히도록 누적 확률을 만든다.
+     */
+    static double[] zipf(int size, double skew) {
+        double[] cumulative = new double[size];
+        double sum = 0;
+        for (int k = 0; k < size; k++) {
+            sum += 1 / Math.pow(k + 1, skew);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < size; k++) {
+            cumulative[k] /= sum;
+        }
+        return cumulative;
+    }
+
+    static int pick(double[] cumulative, double value) {
+        int index = Arrays.binarySearch(cumulative, value);
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+
+    private static int age(SplittableRandom random) {
+        return (int) Math.min(99, Math.abs(random.nextGaussian() * 12 + 32));
+    }
+}
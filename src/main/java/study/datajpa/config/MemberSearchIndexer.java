@@ -0,0 +1,35 @@
+package study.datajpa.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.search.mapper.orm.Search;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import study.datajpa.entity.Member;
+
+/**
+ * 기동 시 회원 검색 인덱스를 DB에서 다시 만든다.
+ * JDBC로 적재한 데이터처럼 엔티티 이벤트를 거치지 않은 변경을 인덱스에 반영할 때 켠다.
+ */
+@Slf4j
+@Component
+@Order(2)
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "search", name = "reindex-on-startup", havingValue = "true")
+public class MemberSearchIndexer implements ApplicationRunner {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void run(ApplicationArguments args) throws InterruptedException {
+        long start = System.currentTimeMillis();
+        Search.mapping(entityManagerFactory).scope(Member.class).massIndexer()
+                .threadsToLoadObjects(2)
+                .startAndWait();
+        log.info("Rebuilt member search index in {}ms", System.currentTimeMillis() - start);
+    }
+}
@@ -0,0 +1,40 @@
+package study.datajpa.config;
+
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 요청마다 한 번만 감사자 값을 만들고 요청 속성에 캐시한다.
+ * UUID.randomUUID()는 SecureRandom을 사용하므로 ThreadLocalRandom으로 버전 4 UUID를 만든다.
+ */
+public class RequestCachingAuditorAware implements AuditorAware<String> {
+
+    private static final String AUDITOR_ATTRIBUTE = RequestCachingAuditorAware.class.getName() + ".AUDITOR";
+
+    @Override
+    public Optional<String> getCurrentAuditor() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return Optional.of(newAuditor());
+        }
+
+        String auditor = (String) attributes.getAttribute(AUDITOR_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (auditor == null) {
+            auditor = newAuditor();
+            attributes.setAttribute(AUDITOR_ATTRIBUTE, auditor, RequestAttributes.SCOPE_REQUEST);
+        }
+        return Optional.of(auditor);
+    }
+
+    private String newAuditor() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long mostSigBits = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long leastSigBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits).toString();
+    }
+}
@@ -0,0 +1,38 @@
+package study.datajpa.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.format.FormatterRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import study.datajpa.controller.MemberConditionalGetInterceptor;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.lookup.EntityBatchLoader;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final MemberConditionalGetInterceptor memberConditionalGetInterceptor;
+    private final ObjectProvider<EntityBatchLoader> entityBatchLoader;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(memberConditionalGetInterceptor)
+                .addPathPatterns("/members/{id}", "/members2/{id}");
+    }
+
+    /**
+     * @PathVariable Member, Team 변환을 DomainClassConverter 대신 요청 범위 로더로 처리해 같은 요청 안의 조회를 재사용한다.
+     */
+    @Override
+    public void addFormatters(FormatterRegistry registry) {
+        registry.addConverter(String.class, Member.class,
+                (Converter<String, Member>) id -> entityBatchLoader.getObject().get(Member.class, Long.valueOf(id)));
+        registry.addConverter(String.class, Team.class,
+                (Converter<String, Team>) id -> entityBatchLoader.getObject().get(Team.class, Long.valueOf(id)));
+    }
+}
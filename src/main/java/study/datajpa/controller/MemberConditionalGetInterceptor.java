@@ -0,0 +1,65 @@
+package study.datajpa.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import study.datajpa.repository.MemberRepository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 회원 단건 조회 전에 lastModifiedDate만 조회해 ETag, Last-Modified를 비교하고 바뀌지 않았으면 304로 끝낸다.
+ * 핸들러 인자 변환(도메인 클래스 컨버터) 전에 실행되므로 304 응답에서는 엔티티를 로딩하지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberConditionalGetInterceptor implements HandlerInterceptor {
+
+    private final MemberRepository memberRepository;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            return true;
+        }
+        Long id = memberId(request);
+        if (id == null) {
+            return true;
+        }
+        Optional<LocalDateTime> lastModified = memberRepository.findLastModifiedDateById(id);
+        if (lastModified.isEmpty()) {
+            return true;
+        }
+        LocalDateTime version = lastModified.get();
+        long epochMicros = ChronoUnit.MICROS.between(LocalDateTime.of(1970, 1, 1, 0, 0), version);
+        long lastModifiedMillis = version.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        // 캐시된 응답을 쓰기 전에 항상 재검증하게 한다.
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        return !new ServletWebRequest(request, response)
+                .checkNotModified(Long.toHexString(epochMicros), lastModifiedMillis);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Long memberId(HttpServletRequest request) {
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables == null || variables.get("id") == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(variables.get("id"));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
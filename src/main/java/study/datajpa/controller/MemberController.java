@@ -1,27 +1,78 @@
 package study.datajpa.controller;
 
-import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import study.datajpa.dto.MemberBatchRequest;
+import study.datajpa.dto.MemberBatchResponse;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
+import study.datajpa.lookup.MemberLookupCoalescer;
 import study.datajpa.repository.MemberRepository;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 @RestController
 @RequiredArgsConstructor
 public class MemberController {
 
+    private static final int MAX_BATCH_IDS = 1000;
+
     private final MemberRepository memberRepository;
+    private final MemberPageWriter memberPageWriter;
+    private final MemberLookupCoalescer memberLookupCoalescer;
 
 
     @GetMapping("/members/{id}")
     public String findMember(@PathVariable("id") Long id) {
-        return memberRepository.findById(id).get().getUsername();
+        return memberLookupCoalescer.find(id)
+                .map(MemberDto::username)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Member " + id + " not found"));
+    }
+
+    @PostMapping("/members/batch")
+    public MemberBatchResponse findMembers(@RequestBody MemberBatchRequest request) {
+        Set<Long> ids = request.ids() == null ? Set.of() : request.ids().stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (ids.size() > MAX_BATCH_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_BATCH_IDS + " ids per request");
+        }
+        if (ids.isEmpty()) {
+            return new MemberBatchResponse(List.of(), List.of());
+        }
+
+        Map<Long, MemberDto> found = memberRepository.findMemberDtoByIdIn(ids).stream()
+                .collect(Collectors.toMap(MemberDto::id, Function.identity()));
+        List<MemberDto> members = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            MemberDto member = found.get(id);
+            if (member != null) {
+                members.add(member);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new MemberBatchResponse(members, missing);
     }
 
     @GetMapping("/members2/{id}")
@@ -30,14 +81,10 @@ public class MemberController {
     }
 
     @GetMapping("/members")
-    public Page<MemberDto> list(@PageableDefault(size = 5) Pageable pageable) {
-        return memberRepository.findAll(pageable).map(MemberDto::new);
-    }
-
-    @PostConstruct
-    public void init() {
-        for (int i = 0; i < 100; i++) {
-            memberRepository.save(new Member("user" + i));
-        }
+    public void list(@PageableDefault(size = 5) Pageable pageable,
+                     @RequestParam(name = "total", defaultValue = "false") boolean total,
+                     HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        memberPageWriter.write(pageable, total, response.getOutputStream());
     }
 }
@@ -0,0 +1,139 @@
+package study.datajpa.controller;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * 회원 페이지를 엔티티나 DTO 목록을 만들지 않고 조회 결과에서 바로 JSON으로 쓴다.
+ * <pre>
+ * {"content":[{"id":1,"username":"member1","teamName":"teamA"}],
+ *  "page":{"number":0,"size":20,"offset":0,"hasNext":true,"totalElements":100}}
+ * </pre>
+ * totalElements는 요청한 경우에만 count 쿼리를 실행해 쓴다.
+ * <p>
+ * 응답 버퍼가 찬 뒤에는 상태 코드 200이 이미 나갔으므로 도중에 실패하면 올바른 오류 응답을 보낼 수 없다.
+ * 이때는 JSON을 닫지 않고 예외를 던져 컨테이너가 연결을 끊게 하므로, 클라이언트는 끝나지 않은 응답으로 실패를 알 수 있다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MemberPageWriter {
+
+    private static final Set<String> SORTABLE = Set.of("id", "username", "age");
+
+    private static final SerializedString CONTENT = new SerializedString("content");
+    private static final SerializedString ID = new SerializedString("id");
+    private static final SerializedString USERNAME = new SerializedString("username");
+    private static final SerializedString TEAM_NAME = new SerializedString("teamName");
+    private static final SerializedString PAGE = new SerializedString("page");
+    private static final SerializedString NUMBER = new SerializedString("number");
+    private static final SerializedString SIZE = new SerializedString("size");
+    private static final SerializedString OFFSET = new SerializedString("offset");
+    private static final SerializedString HAS_NEXT = new SerializedString("hasNext");
+    private static final SerializedString TOTAL_ELEMENTS = new SerializedString("totalElements");
+
+    private final EntityManager em;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public void write(Pageable pageable, boolean withTotal, OutputStream out) throws IOException {
+        String jpql = QueryUtils.applySorting(
+                "select m.id as id, m.username as username, t.name as teamName from Member m left join m.team t",
+                sort(pageable.getSort()), "m");
+
+        try (Stream<Tuple> rows = em.createQuery(jpql, Tuple.class)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultStream()) {
+            write(pageable, withTotal, rows.iterator(), out);
+        }
+    }
+
+    void write(Pageable pageable, boolean withTotal, Iterator<Tuple> rows, OutputStream out) throws IOException {
+        // 쿼리 실행 오류는 아무것도 쓰기 전에 드러나 일반 오류 응답이 된다.
+        rows.hasNext();
+
+        // 실패하면 닫지 않고 예외를 그대로 던진다. 자동으로 닫으면 열린 배열, 객체가 닫혀 잘린 응답이 올바른 JSON처럼 보인다.
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        generator.writeStartObject();
+        generator.writeFieldName(CONTENT);
+        generator.writeStartArray();
+        // 다음 페이지 여부를 알기 위해 한 건 더 읽고 쓰지는 않는다.
+        int written = 0;
+        while (written < pageable.getPageSize() && rows.hasNext()) {
+            writeMember(generator, rows.next());
+            written++;
+        }
+        boolean hasNext = rows.hasNext();
+        generator.writeEndArray();
+
+        generator.writeFieldName(PAGE);
+        generator.writeStartObject();
+        generator.writeFieldName(NUMBER);
+        generator.writeNumber(pageable.getPageNumber());
+        generator.writeFieldName(SIZE);
+        generator.writeNumber(pageable.getPageSize());
+        generator.writeFieldName(OFFSET);
+        generator.writeNumber(pageable.getOffset());
+        generator.writeFieldName(HAS_NEXT);
+        generator.writeBoolean(hasNext);
+        if (withTotal) {
+            generator.writeFieldName(TOTAL_ELEMENTS);
+            generator.writeNumber(total(pageable, written, hasNext));
+        }
+        generator.writeEndObject();
+        generator.writeEndObject();
+        generator.close();
+    }
+
+    private void writeMember(JsonGenerator generator, Tuple row) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(ID);
+        generator.writeNumber(row.get(0, Long.class));
+        generator.writeFieldName(USERNAME);
+        generator.writeString(row.get(1, String.class));
+        generator.writeFieldName(TEAM_NAME);
+        generator.writeString(row.get(2, String.class));
+        generator.writeEndObject();
+    }
+
+    private long total(Pageable pageable, int written, boolean hasNext) {
+        // 마지막 페이지면 count 쿼리 없이 알 수 있다.
+        if (!hasNext && (written > 0 || pageable.getOffset() == 0)) {
+            return pageable.getOffset() + written;
+        }
+        return em.createQuery("select count(m) from Member m", Long.class).getSingleResult();
+    }
+
+    /**
+     * 정렬 가능한 속성만 허용하고 페이지 경계가 흔들리지 않도록 id를 마지막 정렬 기준으로 붙인다.
+     */
+    private Sort sort(Sort sort) {
+        for (Sort.Order order : sort) {
+            if (!SORTABLE.contains(order.getProperty())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cannot sort members by " + order.getProperty());
+            }
+        }
+        return sort.getOrderFor("id") != null ? sort : sort.and(Sort.by("id"));
+    }
+}
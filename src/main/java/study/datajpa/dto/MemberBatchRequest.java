@@ -0,0 +1,6 @@
+package study.datajpa.dto;
+
+import java.util.List;
+
+public record MemberBatchRequest(List<Long> ids) {
+}
@@ -0,0 +1,9 @@
+package study.datajpa.dto;
+
+import java.util.List;
+
+/**
+ * members는 요청한 id 순서(중복 제거)대로 담고, 없는 id는 missing에 담는다.
+ */
+public record MemberBatchResponse(List<MemberDto> members, List<Long> missing) {
+}
@@ -1,28 +1,30 @@
 package study.datajpa.dto;
 
-import lombok.Getter;
-import lombok.Setter;
 import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.lookup.EntityBatchLoader;
 
-@Getter
-@Setter
-public class MemberDto {
+/**
+ * 회원 조회 결과. 불변 record라 JPQL 생성자 표현식이나 TupleTransformer로 바로 만들어 쓴다.
+ */
+public record MemberDto(Long id, String username, String teamName) {
 
-    private Long id;
-    private String username;
-    private String teamName;
+    public MemberDto(Member member) {
+        this(member.getId(), member.getUsername(), member.getTeam() != null ? member.getTeam().getName() : null);
+    }
 
-    public MemberDto(Long id, String username, String teamName) {
-        this.id = id;
-        this.username = username;
-        this.teamName = teamName;
+    /**
+     * 팀은 로더로 가져오므로 여러 회원을 변환해도 팀 조회는 한 번으로 묶인다.
+     */
+    public MemberDto(Member member, EntityBatchLoader loader) {
+        this(member.getId(), member.getUsername(), teamName(member, loader));
     }
 
-    public MemberDto(Member member) {
-        this.id = member.getId();
-        this.username = member.getUsername();
-        if (member.getTeam() != null) {
-            this.teamName = member.getTeam().getName();
+    private static String teamName(Member member, EntityBatchLoader loader) {
+        if (member.getTeam() == null) {
+            return null;
         }
+        Team team = loader.get(Team.class, member.getTeam().getId());
+        return team != null ? team.getName() : null;
     }
 }
@@ -0,0 +1,7 @@
+package study.datajpa.dto;
+
+/**
+ * 팀별 회원 집계. 회원 컬렉션을 로딩하지 않고 쿼리 한 번으로 조회한다.
+ */
+public record TeamStatsDto(Long teamId, String name, Long memberCount, Double avgAge, Integer minAge, Integer maxAge) {
+}
@@ -0,0 +1,40 @@
+package study.datajpa.entity;
+
+import org.hibernate.Interceptor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+
+/**
+ * flush 시작 시점에 시계를 한 번만 읽어 같은 flush에서 수정되는 엔티티들이 같은 수정일자를 쓰게 한다.
+ * Hibernate Interceptor로 등록되어 preFlush/postFlush를 받는다.
+ */
+@Component
+public class AuditClock implements Interceptor {
+
+    private final ThreadLocal<LocalDateTime> flushTime = new ThreadLocal<>();
+
+    public LocalDateTime now() {
+        return LocalDateTime.now();
+    }
+
+    /**
+     * flush 중이면 flush 시작 시각을, 아니면 현재 시각을 반환한다.
+     * PreUpdate 콜백은 항상 flush 안에서 호출된다.
+     */
+    public LocalDateTime flushTime() {
+        LocalDateTime now = flushTime.get();
+        return now != null ? now : now();
+    }
+
+    @Override
+    public void preFlush(Iterator<Object> entities) {
+        flushTime.set(now());
+    }
+
+    @Override
+    public void postFlush(Iterator<Object> entities) {
+        flushTime.remove();
+    }
+}
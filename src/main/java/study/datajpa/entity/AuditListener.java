@@ -0,0 +1,42 @@
+package study.datajpa.entity;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.util.function.SingletonSupplier;
+
+import java.util.function.Supplier;
+
+/**
+ * BaseTimeEntity, BaseEntity의 감사 컬럼을 채운다.
+ * AuditingEntityListener처럼 리플렉션으로 필드를 찾지 않고 엔티티의 메소드를 직접 호출한다.
+ */
+public class AuditListener {
+
+    // EntityManagerFactory는 백그라운드에서 만들어지므로 리스너 생성 시점에 빈을 조회하지 않고 처음 사용할 때 조회한다.
+    private final Supplier<AuditorAware<String>> auditorAware;
+    private final Supplier<AuditClock> auditClock;
+
+    public AuditListener(ObjectProvider<AuditorAware<String>> auditorAware, ObjectProvider<AuditClock> auditClock) {
+        this.auditorAware = SingletonSupplier.of(auditorAware::getObject);
+        this.auditClock = SingletonSupplier.of(auditClock::getObject);
+    }
+
+    @PrePersist
+    public void prePersist(BaseTimeEntity entity) {
+        entity.onCreate(auditClock.get().now(), currentAuditor(entity));
+    }
+
+    @PreUpdate
+    public void preUpdate(BaseTimeEntity entity) {
+        entity.onUpdate(auditClock.get().flushTime(), currentAuditor(entity));
+    }
+
+    private String currentAuditor(BaseTimeEntity entity) {
+        if (!(entity instanceof BaseEntity)) {
+            return null;
+        }
+        return auditorAware.get().getCurrentAuditor().orElse(null);
+    }
+}
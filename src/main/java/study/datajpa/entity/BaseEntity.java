@@ -1,17 +1,37 @@
 package study.datajpa.entity;
 
+import jakarta.persistence.Basic;
 import jakarta.persistence.Column;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.MappedSuperclass;
 import lombok.Getter;
-import org.springframework.data.annotation.CreatedBy;
-import org.springframework.data.annotation.LastModifiedBy;
+import org.hibernate.annotations.LazyGroup;
+
+import java.time.LocalDateTime;
 
 @Getter
+@MappedSuperclass
 public class BaseEntity extends BaseTimeEntity{
 
-    @CreatedBy
     @Column(updatable = false)
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("audit")
     private String createdBy;
 
-    @LastModifiedBy
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("audit")
     private String lastModifiedBy;
+
+    @Override
+    void onCreate(LocalDateTime now, String auditor) {
+        super.onCreate(now, auditor);
+        createdBy = auditor;
+        lastModifiedBy = auditor;
+    }
+
+    @Override
+    void onUpdate(LocalDateTime now, String auditor) {
+        super.onUpdate(now, auditor);
+        lastModifiedBy = auditor;
+    }
 }
@@ -1,24 +1,35 @@
 package study.datajpa.entity;
 
+import jakarta.persistence.Basic;
 import jakarta.persistence.Column;
 import jakarta.persistence.EntityListeners;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.MappedSuperclass;
 import lombok.Getter;
-import org.springframework.data.annotation.CreatedDate;
-import org.springframework.data.annotation.LastModifiedDate;
-import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+import org.hibernate.annotations.LazyGroup;
 
 import java.time.LocalDateTime;
 
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners(AuditListener.class)
 @Getter
 @MappedSuperclass
 public class BaseTimeEntity {
 
-    @CreatedDate
     @Column(updatable = false)
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("audit")
     private LocalDateTime createdDate;
 
-    @LastModifiedDate
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("audit")
     private LocalDateTime lastModifiedDate;
+
+    void onCreate(LocalDateTime now, String auditor) {
+        createdDate = now;
+        lastModifiedDate = now;
+    }
+
+    void onUpdate(LocalDateTime now, String auditor) {
+        lastModifiedDate = now;
+    }
 }
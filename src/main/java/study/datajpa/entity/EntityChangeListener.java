@@ -0,0 +1,60 @@
+package study.datajpa.entity;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.util.function.SingletonSupplier;
+import study.datajpa.event.EntityChangeType;
+import study.datajpa.event.MemberChangedEvent;
+import study.datajpa.event.MemberState;
+import study.datajpa.event.TeamChangedEvent;
+
+import java.util.function.Supplier;
+
+/**
+ * Member, Team의 저장, 수정, 삭제를 애플리케이션 이벤트로 발행한다.
+ * 이벤트는 flush 도중 같은 스레드에서 동기로 전달된다.
+ */
+public class EntityChangeListener {
+
+    private final Supplier<ApplicationEventPublisher> publisher;
+
+    public EntityChangeListener(ObjectProvider<ApplicationEventPublisher> publisher) {
+        this.publisher = SingletonSupplier.of(publisher::getObject);
+    }
+
+    @PostLoad
+    public void postLoad(Object entity) {
+        if (entity instanceof Member member) {
+            member.rememberState();
+        }
+    }
+
+    @PostPersist
+    public void postPersist(Object entity) {
+        publish(entity, EntityChangeType.CREATED);
+    }
+
+    @PostUpdate
+    public void postUpdate(Object entity) {
+        publish(entity, EntityChangeType.UPDATED);
+    }
+
+    @PostRemove
+    public void postRemove(Object entity) {
+        publish(entity, EntityChangeType.DELETED);
+    }
+
+    private void publish(Object entity, EntityChangeType type) {
+        if (entity instanceof Member member) {
+            MemberState state = member.currentState();
+            publisher.get().publishEvent(new MemberChangedEvent(type, member.getId(), state, member.getLoadedState()));
+            member.rememberState();
+        } else if (entity instanceof Team team) {
+            publisher.get().publishEvent(new TeamChangedEvent(type, team.getId(), team.getName()));
+        }
+    }
+}
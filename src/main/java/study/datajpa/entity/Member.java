@@ -2,12 +2,34 @@ package study.datajpa.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ResultCheckStyle;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.search.engine.backend.types.Sortable;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.FullTextField;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.Indexed;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.KeywordField;
+import study.datajpa.event.MemberState;
+
+import java.time.LocalDateTime;
 
 @Entity
 @Getter
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString
+@Table(indexes = {
+        @Index(name = "idx_member_username_age", columnList = "username, age"),
+        @Index(name = "idx_member_age_username", columnList = "age, username"),
+        @Index(name = "idx_member_team_id", columnList = "TEAM_ID"),
+        @Index(name = "idx_member_last_modified_date", columnList = "last_modified_date"),
+        @Index(name = "idx_member_deleted_at", columnList = "deleted_at")
+})
+// 삭제는 deleted_at만 채우고 행은 SoftDeletePurger가 보존 기간 뒤에 지운다. 조회에는 항상 삭제되지 않은 회원만 나온다.
+@SQLDelete(sql = "update member set deleted_at = localtimestamp(6) where member_id = ?", check = ResultCheckStyle.COUNT)
+@SQLRestriction("deleted_at is null")
+@EntityListeners(EntityChangeListener.class)
+@Indexed
 @NamedQuery(
         name = "Member.findByUsername",
         query = "select m from Member m where m.username = :username"
@@ -18,14 +40,29 @@ public class Member extends BaseEntity {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "MEMBER_ID")
     private Long id;
+
+    // 단어 검색, 접두어 검색(edge n-gram), 정렬용 필드로 각각 색인한다.
+    @FullTextField(analyzer = MemberSearchAnalysisConfigurer.USERNAME)
+    @FullTextField(name = "username_prefix", analyzer = MemberSearchAnalysisConfigurer.USERNAME_PREFIX,
+            searchAnalyzer = MemberSearchAnalysisConfigurer.USERNAME)
+    @KeywordField(name = "username_sort", normalizer = MemberSearchAnalysisConfigurer.LOWERCASE, sortable = Sortable.YES)
     private String username;
     private int age;
 
+    @Setter(AccessLevel.NONE)
+    private LocalDateTime deletedAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "TEAM_ID")
     @ToString.Exclude
     private Team team;
 
+    @Transient
+    @Getter(AccessLevel.PACKAGE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private MemberState loadedState;
+
     public Member(String username) {
         this.username = username;
     }
@@ -39,7 +76,29 @@ public class Member extends BaseEntity {
     }
 
     public void changeTeam(Team team) {
+        if (isSameTeam(team)) {
+            return;
+        }
+        // 팀의 members 컬렉션은 바이트코드 향상의 연관관계 관리가 맞춘다.
         this.team = team;
-        team.getMembers().add(this);
+    }
+
+    // 어느 쪽이든 프록시일 수 있으므로 인스턴스가 아니라 id로 비교한다.
+    private boolean isSameTeam(Team team) {
+        if (this.team == team) {
+            return true;
+        }
+        if (this.team == null || team == null || this.team.getId() == null) {
+            return false;
+        }
+        return this.team.getId().equals(team.getId());
+    }
+
+    MemberState currentState() {
+        return new MemberState(username, age, team != null ? team.getId() : null);
+    }
+
+    void rememberState() {
+        loadedState = currentState();
     }
 }
@@ -0,0 +1,33 @@
+package study.datajpa.entity;
+
+import org.hibernate.search.backend.lucene.analysis.LuceneAnalysisConfigurationContext;
+import org.hibernate.search.backend.lucene.analysis.LuceneAnalysisConfigurer;
+
+/**
+ * Member.username 검색에 쓰는 분석기 정의.
+ * 접두어 검색은 색인 시에만 edge n-gram으로 쪼개고 검색어는 그대로 둔다.
+ */
+public class MemberSearchAnalysisConfigurer implements LuceneAnalysisConfigurer {
+
+    static final String USERNAME = "username";
+    static final String USERNAME_PREFIX = "username_prefix";
+    static final String LOWERCASE = "lowercase";
+
+    @Override
+    public void configure(LuceneAnalysisConfigurationContext context) {
+        context.analyzer(USERNAME).custom()
+                .tokenizer("standard")
+                .tokenFilter("lowercase")
+                .tokenFilter("asciiFolding");
+        context.analyzer(USERNAME_PREFIX).custom()
+                .tokenizer("standard")
+                .tokenFilter("lowercase")
+                .tokenFilter("asciiFolding")
+                .tokenFilter("edgeNGram")
+                .param("minGramSize", "1")
+                .param("maxGramSize", "30");
+        context.normalizer(LOWERCASE).custom()
+                .tokenFilter("lowercase")
+                .tokenFilter("asciiFolding");
+    }
+}
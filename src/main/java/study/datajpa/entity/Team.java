@@ -2,6 +2,11 @@ package study.datajpa.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ResultCheckStyle;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.SQLRestriction;
+
+import java.time.LocalDateTime;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -11,6 +16,16 @@ import java.util.List;
 @Setter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString
+@EntityListeners(EntityChangeListener.class)
+@Table(indexes = {
+        @Index(name = "idx_team_name", columnList = "name"),
+        @Index(name = "idx_team_deleted_at", columnList = "deleted_at")
+})
+// 회원이 남은 팀은 TeamRepository.delete가 먼저 거부한다. 확인 뒤 회원이 추가되면 0건이 바뀌어 삭제가 실패한다.
+@SQLDelete(sql = "update team set deleted_at = localtimestamp(6) where team_id = ?"
+        + " and not exists (select 1 from member m where m.team_id = team.team_id and m.deleted_at is null)",
+        check = ResultCheckStyle.COUNT)
+@SQLRestriction("deleted_at is null")
 public class Team {
 
     @Id
@@ -19,6 +34,18 @@ public class Team {
     private Long id;
     private String name;
 
+    /**
+     * 소속 회원 수. team.member-count.enabled일 때 TeamMemberCountUpdater가 증감 update로 갱신하고
+     * 엔티티는 읽기만 한다. 끄면 갱신되지 않는다.
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(insertable = false, updatable = false)
+    private int memberCount;
+
+    @Setter(AccessLevel.NONE)
+    private LocalDateTime deletedAt;
+
+    // 회원 수, 나이 집계는 컬렉션 대신 TeamRepository의 count, 통계 쿼리로 구한다.
     @OneToMany(mappedBy = "team", fetch = FetchType.LAZY)
     @ToString.Exclude
     private List<Member> members = new ArrayList<>();
@@ -0,0 +1,8 @@
+package study.datajpa.event;
+
+/**
+ * age가 minAge 이상인 회원의 age를 1 증가시키는 벌크 수정 후 발행된다.
+ * 벌크 수정은 엔티티 리스너를 거치지 않으므로 회원별 MemberChangedEvent는 발행되지 않는다.
+ */
+public record MemberAgeBulkIncreasedEvent(int minAge, int updatedCount) {
+}
@@ -0,0 +1,8 @@
+package study.datajpa.event;
+
+/**
+ * Member가 저장, 수정, 삭제된 직후 발행된다.
+ * previous는 조회(또는 직전 저장) 시점의 상태이며 새로 저장된 경우 null이다.
+ */
+public record MemberChangedEvent(EntityChangeType type, Long memberId, MemberState state, MemberState previous) {
+}
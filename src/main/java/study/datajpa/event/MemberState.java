@@ -0,0 +1,4 @@
+package study.datajpa.event;
+
+public record MemberState(String username, int age, Long teamId) {
+}
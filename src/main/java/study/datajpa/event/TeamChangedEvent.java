@@ -0,0 +1,4 @@
+package study.datajpa.event;
+
+public record TeamChangedEvent(EntityChangeType type, Long teamId, String name) {
+}
@@ -0,0 +1,96 @@
+package study.datajpa.lookup;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 요청 동안 엔티티 id 조회를 모았다가 타입별로 in 쿼리 한 번에 가져오는 로더.
+ * queue로 필요한 id를 먼저 알려두면 첫 get 시점에 쌓인 id를 함께 조회하고, 결과는 요청이 끝날 때까지 재사용한다.
+ * <pre>
+ * members.forEach(m -> loader.queue(Team.class, teamId(m)));
+ * members.stream().map(m -> new MemberDto(m, loader)).toList();
+ * </pre>
+ */
+@Component
+@RequestScope
+@RequiredArgsConstructor
+public class EntityBatchLoader {
+
+    private static final int MAX_BATCH = 1000;
+
+    private final EntityManager em;
+
+    private final Map<Class<?>, Map<Object, Object>> loaded = new HashMap<>();
+    private final Map<Class<?>, Set<Object>> queued = new HashMap<>();
+
+    public void queue(Class<?> type, Object id) {
+        if (id != null && !loaded(type).containsKey(id)) {
+            queued.computeIfAbsent(type, key -> new LinkedHashSet<>()).add(id);
+        }
+    }
+
+    public void queue(Class<?> type, Collection<?> ids) {
+        ids.forEach(id -> queue(type, id));
+    }
+
+    /**
+     * 없는 id면 null을 돌려준다.
+     */
+    public <T> T get(Class<T> type, Object id) {
+        if (id == null) {
+            return null;
+        }
+        Map<Object, Object> entities = loaded(type);
+        if (!entities.containsKey(id)) {
+            queue(type, id);
+            dispatch(type);
+        }
+        return type.cast(entities.get(id));
+    }
+
+    public <T> Map<Object, T> getAll(Class<T> type, Collection<?> ids) {
+        queue(type, ids);
+        dispatch(type);
+        Map<Object, T> result = new LinkedHashMap<>();
+        for (Object id : ids) {
+            Object entity = loaded(type).get(id);
+            if (entity != null) {
+                result.put(id, type.cast(entity));
+            }
+        }
+        return result;
+    }
+
+    private void dispatch(Class<?> type) {
+        Set<Object> ids = queued.remove(type);
+        if (ids == null || ids.isEmpty()) {
+            return;
+        }
+        Map<Object, Object> entities = loaded(type);
+        List<Object> pending = new ArrayList<>(ids);
+        for (int from = 0; from < pending.size(); from += MAX_BATCH) {
+            List<Object> chunk = pending.subList(from, Math.min(from + MAX_BATCH, pending.size()));
+            // 결과는 요청한 id 순서이고 없는 id 자리는 null이다.
+            List<?> found = em.unwrap(Session.class).byMultipleIds(type).multiLoad(chunk);
+            for (int i = 0; i < chunk.size(); i++) {
+                entities.put(chunk.get(i), found.get(i));
+            }
+        }
+    }
+
+    private Map<Object, Object> loaded(Class<?> type) {
+        return loaded.computeIfAbsent(type, key -> new HashMap<>());
+    }
+}
@@ -0,0 +1,94 @@
+package study.datajpa.lookup;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * 동시에 들어온 회원 단건 조회를 모아 in 쿼리 한 번으로 처리한다.
+ * 조회 중인 쿼리가 없으면 요청한 스레드가 바로 쿼리를 실행하고,
+ * 쿼리가 실행되는 동안 들어온 요청은 쌓였다가 다음 쿼리 한 번으로 함께 처리된다.
+ */
+@Component
+public class MemberLookupCoalescer {
+
+    private final Function<Collection<Long>, List<MemberDto>> loader;
+    private final Object lock = new Object();
+
+    private Map<Long, CompletableFuture<Optional<MemberDto>>> pending = new LinkedHashMap<>();
+    private boolean running;
+
+    @Autowired
+    public MemberLookupCoalescer(MemberRepository memberRepository) {
+        this(memberRepository::findMemberDtoByIdIn);
+    }
+
+    MemberLookupCoalescer(Function<Collection<Long>, List<MemberDto>> loader) {
+        this.loader = loader;
+    }
+
+    public Optional<MemberDto> find(Long id) {
+        CompletableFuture<Optional<MemberDto>> future;
+        synchronized (lock) {
+            future = pending.computeIfAbsent(id, key -> new CompletableFuture<>());
+        }
+        while (!future.isDone()) {
+            Map<Long, CompletableFuture<Optional<MemberDto>>> batch = takeBatch(future);
+            if (batch != null) {
+                load(batch);
+            }
+        }
+        return future.join();
+    }
+
+    /**
+     * 실행 중인 쿼리가 없으면 쌓인 요청을 모두 가져가고, 있으면 끝날 때까지 기다린다.
+     */
+    private Map<Long, CompletableFuture<Optional<MemberDto>>> takeBatch(CompletableFuture<?> future) {
+        synchronized (lock) {
+            if (!running && !pending.isEmpty()) {
+                running = true;
+                Map<Long, CompletableFuture<Optional<MemberDto>>> batch = pending;
+                pending = new LinkedHashMap<>();
+                return batch;
+            }
+            while (running && !future.isDone()) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for member lookup", e);
+                }
+            }
+            return null;
+        }
+    }
+
+    private void load(Map<Long, CompletableFuture<Optional<MemberDto>>> batch) {
+        try {
+            for (MemberDto member : loader.apply(batch.keySet())) {
+                CompletableFuture<Optional<MemberDto>> future = batch.get(member.id());
+                if (future != null) {
+                    future.complete(Optional.of(member));
+                }
+            }
+            batch.values().forEach(future -> future.complete(Optional.empty()));
+        } catch (RuntimeException e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        } finally {
+            synchronized (lock) {
+                running = false;
+                lock.notifyAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package study.datajpa.lookup;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.event.EntityChangeType;
+import study.datajpa.event.MemberChangedEvent;
+import study.datajpa.event.MemberState;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * username의 64비트 해시와 회원 id를 long 배열 두 개에 담는 오픈 어드레싱 해시 테이블.
+ * 같은 해시가 하나도 없으면 그 username의 회원이 없다는 것이 확실하므로 DB 조회를 건너뛸 수 있다.
+ * 해시가 있으면 충돌일 수 있으므로 DB를 조회한다.
+ * <p>
+ * 추가는 flush 시점에 바로 반영하고 삭제는 커밋 후에 반영한다.
+ * 롤백되면 남는 항목은 DB 조회를 한 번 더 하게 할 뿐 없는 회원을 있다고 답하지는 않는다.
+ * 슬롯당 16바이트, 적재율 0.5 이하로 유지하므로 백만 건당 약 32MB이다.
+ * <p>
+ * 엔티티 이벤트를 거치지 않는 쓰기(JDBC, 네이티브 SQL)는 인덱스에 반영되지 않으므로
+ * 그런 쓰기를 하는 쪽은 markStale()을 호출한다. 그 뒤로는 UsernameIndexLoader가 다시 적재할 때까지
+ * 없다는 답을 하지 않는다. 이 프로세스 밖(다른 인스턴스 등)에서 회원을 쓰는 배포에서는 켜지 않는다.
+ */
+@Component
+public class UsernameIndex {
+
+    private static final long EMPTY = 0L;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final boolean enabled;
+    private final StampedLock lock = new StampedLock();
+
+    private long[] hashes;
+    private long[] ids;
+    private int size;
+    private volatile boolean ready;
+    private final AtomicLong generation = new AtomicLong();
+
+    public UsernameIndex(@Value("${username-index.enabled:false}") boolean enabled) {
+        this.enabled = enabled;
+        this.hashes = new long[INITIAL_CAPACITY];
+        this.ids = new long[INITIAL_CAPACITY];
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 적재를 시작할 때의 세대. 적재 도중 markStale()이 호출되면 그 적재로는 다시 믿을 수 없다.
+     */
+    long generation() {
+        return generation.get();
+    }
+
+    /**
+     * generation 시점 이후의 모든 회원이 들어 있음을 표시한다. 그 사이 markStale()이 있었으면 무시한다.
+     *
+     * @return 인덱스를 믿을 수 있게 됐으면 true
+     */
+    synchronized boolean markReady(long generation) {
+        if (this.generation.get() != generation) {
+            return false;
+        }
+        ready = true;
+        return true;
+    }
+
+    /**
+     * 인덱스에 반영되지 않은 쓰기가 있었음을 알린다. 다시 적재될 때까지 항상 DB를 조회하게 한다.
+     * 트랜잭션 안에서 호출하면 커밋 후에 한 번 더 표시해, 커밋 전에 시작된 적재가 그 쓰기를 못 보고
+     * 인덱스를 믿을 수 있다고 표시하지 않게 한다.
+     */
+    public void markStale() {
+        invalidate();
+        afterCommit(this::invalidate);
+    }
+
+    private synchronized void invalidate() {
+        generation.incrementAndGet();
+        ready = false;
+    }
+
+    /**
+     * 해당 username의 회원이 없는 것이 확실하면 false를 돌려준다. 적재 전이거나, 꺼져 있거나,
+     * markStale() 이후 다시 적재되기 전이면 항상 true이다.
+     */
+    public boolean mightContain(String username) {
+        if (!ready || username == null) {
+            return true;
+        }
+        long hash = hash(username);
+        long stamp = lock.tryOptimisticRead();
+        boolean found = contains(hashes, hash);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                found = contains(hashes, hash);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return found;
+    }
+
+    public void add(String username, long id) {
+        if (!enabled || username == null) {
+            return;
+        }
+        long hash = hash(username);
+        long stamp = lock.writeLock();
+        try {
+            if ((size + 1) * 2 > hashes.length) {
+                resize(hashes.length * 2);
+            }
+            int mask = hashes.length - 1;
+            int slot = home(hash, mask);
+            while (hashes[slot] != EMPTY) {
+                if (hashes[slot] == hash && ids[slot] == id) {
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            hashes[slot] = hash;
+            ids[slot] = id;
+            size++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void remove(String username, long id) {
+        if (!enabled || username == null) {
+            return;
+        }
+        long hash = hash(username);
+        long stamp = lock.writeLock();
+        try {
+            int mask = hashes.length - 1;
+            int slot = home(hash, mask);
+            while (hashes[slot] != EMPTY) {
+                if (hashes[slot] == hash && ids[slot] == id) {
+                    delete(slot, mask);
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * 적재할 건수를 미리 알 때 재해싱 없이 한 번에 늘린다.
+     */
+    public void reserve(long expected) {
+        long stamp = lock.writeLock();
+        try {
+            int capacity = hashes.length;
+            while (capacity < expected * 2 && capacity < (1 << 30)) {
+                capacity <<= 1;
+            }
+            if (capacity > hashes.length) {
+                resize(capacity);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 두 배열이 차지하는 힙 크기(바이트).
+     */
+    public long memoryBytes() {
+        return 2 * (16L + (long) hashes.length * Long.BYTES);
+    }
+
+    @EventListener
+    public void on(MemberChangedEvent event) {
+        if (!enabled || event.memberId() == null) {
+            return;
+        }
+        MemberState state = event.state();
+        MemberState previous = event.previous();
+        if (event.type() == EntityChangeType.CREATED) {
+            add(state.username(), event.memberId());
+        } else if (event.type() == EntityChangeType.UPDATED) {
+            if (previous != null && !Objects.equals(previous.username(), state.username())) {
+                add(state.username(), event.memberId());
+                afterCommit(() -> remove(previous.username(), event.memberId()));
+            }
+        } else {
+            String username = previous != null ? previous.username() : state.username();
+            afterCommit(() -> remove(username, event.memberId()));
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static boolean contains(long[] table, long hash) {
+        int mask = table.length - 1;
+        int slot = home(hash, mask);
+        for (int probes = 0; probes < table.length; probes++) {
+            long current = table[slot];
+            if (current == hash) {
+                return true;
+            }
+            if (current == EMPTY) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    // 선형 탐사에서 삭제 표시 없이 뒤따르는 항목을 앞으로 당긴다.
+    private void delete(int slot, int mask) {
+        int hole = slot;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            if (hashes[next] == EMPTY) {
+                break;
+            }
+            int home = home(hashes[next], mask);
+            boolean stays = hole <= next ? (hole < home && home <= next) : (hole < home || home <= next);
+            if (!stays) {
+                hashes[hole] = hashes[next];
+                ids[hole] = ids[next];
+                hole = next;
+            }
+        }
+        hashes[hole] = EMPTY;
+        ids[hole] = 0;
+        size--;
+    }
+
+    private void resize(int capacity) {
+        long[] oldHashes = hashes;
+        long[] oldIds = ids;
+        long[] newHashes = new long[capacity];
+        long[] newIds = new long[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldHashes.length; i++) {
+            if (oldHashes[i] != EMPTY) {
+                int slot = home(oldHashes[i], mask);
+                while (newHashes[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                newHashes[slot] = oldHashes[i];
+                newIds[slot] = oldIds[i];
+            }
+        }
+        hashes = newHashes;
+        ids = newIds;
+    }
+
+    private static int home(long hash, int mask) {
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * FNV-1a 64비트 해시에 비트를 한 번 더 섞는다. 0은 빈 슬롯 표시로 쓰므로 피한다.
+     */
+    static long hash(String username) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < username.length(); i++) {
+            hash ^= username.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash == EMPTY ? 1 : hash;
+    }
+}
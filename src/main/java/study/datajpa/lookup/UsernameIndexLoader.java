@@ -0,0 +1,122 @@
+package study.datajpa.lookup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.snapshot.MemberSnapshot;
+import study.datajpa.snapshot.MemberSnapshotStore;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+
+/**
+ * 기동이 끝나면 전체 회원의 username을 읽어 UsernameIndex를 채운다.
+ * 적재가 끝나기 전까지 인덱스는 항상 DB 조회를 하도록 답한다.
+ * <p>
+ * username-index.rebuild-interval마다 전체를 다시 읽어 markStale() 이후의 인덱스를 다시 믿을 수 있게 한다.
+ * 다시 읽는 동안 또 markStale()이 호출되면 다음 주기까지 DB 조회를 계속한다.
+ * 이벤트 없이 지워지거나 이름이 바뀐 회원의 항목은 남지만 DB 조회를 한 번 더 하게 할 뿐이다.
+ * <p>
+ * 유효한 스냅샷이 있으면 스냅샷으로 채우고 그 이후 추가, 수정된 회원을 DB에서 따라잡는다.
+ * 수정일자를 바꾸지 않은 쓰기(이전 실행의 JDBC 쓰기 등)는 따라잡을 수 없으므로 스냅샷으로 채운 인덱스는
+ * 곧바로 믿지 않고, 백그라운드에서 전체를 다시 읽은 뒤에야 없는 이름을 없다고 답한다.
+ */
+@Slf4j
+@Component
+public class UsernameIndexLoader {
+
+    private final UsernameIndex usernameIndex;
+    private final MemberRepository memberRepository;
+    private final ObjectProvider<MemberSnapshotStore> snapshotStore;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor executor;
+
+    public UsernameIndexLoader(UsernameIndex usernameIndex,
+                               MemberRepository memberRepository,
+                               ObjectProvider<MemberSnapshotStore> snapshotStore,
+                               PlatformTransactionManager transactionManager,
+                               @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) Executor executor) {
+        this.usernameIndex = usernameIndex;
+        this.memberRepository = memberRepository;
+        this.snapshotStore = snapshotStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.executor = executor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!usernameIndex.isEnabled()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        MemberSnapshotStore store = snapshotStore.getIfAvailable();
+        Optional<MemberSnapshot> snapshot = store != null ? store.load() : Optional.empty();
+        if (snapshot.isPresent()) {
+            transactionTemplate.executeWithoutResult(status -> loadFromSnapshot(snapshot.get(), store));
+            executor.execute(this::rebuild);
+            return;
+        }
+        long generation = usernameIndex.generation();
+        transactionTemplate.executeWithoutResult(status -> {
+            usernameIndex.reserve(memberRepository.count());
+            addAll();
+        });
+        usernameIndex.markReady(generation);
+        log.info("Loaded {} usernames into index ({} KB) in {}ms", usernameIndex.size(),
+                usernameIndex.memoryBytes() / 1024, System.currentTimeMillis() - start);
+    }
+
+    @Scheduled(initialDelayString = "${username-index.rebuild-interval:600000}",
+            fixedDelayString = "${username-index.rebuild-interval:600000}")
+    public void rebuild() {
+        if (!usernameIndex.isEnabled()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        long generation = usernameIndex.generation();
+        Integer read = transactionTemplate.execute(status -> addAll());
+        boolean ready = usernameIndex.markReady(generation);
+        log.debug("Rebuilt username index from {} members in {}ms, ready={}", read,
+                System.currentTimeMillis() - start, ready);
+    }
+
+    private int addAll() {
+        int read = 0;
+        try (Stream<Object[]> usernames = memberRepository.streamUsernames()) {
+            for (Object[] row : (Iterable<Object[]>) usernames::iterator) {
+                usernameIndex.add((String) row[1], (Long) row[0]);
+                read++;
+            }
+        }
+        return read;
+    }
+
+    private void loadFromSnapshot(MemberSnapshot snapshot, MemberSnapshotStore store) {
+        usernameIndex.reserve(snapshot.memberCount());
+        snapshot.forEachMember((id, username, age, teamId) -> usernameIndex.add(username, id));
+        LocalDateTime since = LocalDateTime.ofInstant(snapshot.createdAt().minus(store.catchUpMargin()),
+                ZoneId.systemDefault());
+        int caughtUp = 0;
+        try (Stream<Object[]> changed = memberRepository.streamUsernamesChangedSince(snapshot.maxMemberId(), since)) {
+            for (Object[] row : (Iterable<Object[]>) changed::iterator) {
+                usernameIndex.add((String) row[1], (Long) row[0]);
+                caughtUp++;
+            }
+        }
+        log.info("Warmed username index from snapshot of {} members created at {}, caught up {} changes;"
+                        + " misses go to the database until the background rebuild finishes",
+                snapshot.memberCount(), snapshot.createdAt(), caughtUp);
+    }
+}
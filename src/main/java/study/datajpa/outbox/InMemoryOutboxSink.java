@@ -0,0 +1,19 @@
+package study.datajpa.outbox;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final BlockingQueue<OutboxMessage> queue = new LinkedBlockingQueue<>();
+
+    @Override
+    public void publish(List<OutboxMessage> messages) {
+        queue.addAll(messages);
+    }
+
+    public BlockingQueue<OutboxMessage> getQueue() {
+        return queue;
+    }
+}
@@ -0,0 +1,42 @@
+package study.datajpa.outbox;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+@Table(indexes = @Index(name = "idx_outbox_event_published_date", columnList = "published_date, id"))
+public class OutboxEvent {
+
+    // 저장은 OutboxRecorder가 JDBC 배치로 한다.
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(length = 50)
+    private String aggregateType;
+    private Long aggregateId;
+    @Column(length = 30)
+    private String eventType;
+    @Column(length = 4000)
+    private String payload;
+    private LocalDateTime createdDate;
+    private LocalDateTime publishedDate;
+
+    public OutboxMessage toMessage() {
+        return new OutboxMessage(id, aggregateType, aggregateId, eventType, payload, createdDate);
+    }
+}
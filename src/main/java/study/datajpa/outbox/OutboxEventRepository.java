@@ -0,0 +1,19 @@
+package study.datajpa.outbox;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    List<OutboxEvent> findByPublishedDateIsNullOrderByIdAsc(Pageable pageable);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update OutboxEvent e set e.publishedDate = :publishedDate where e.id in :ids")
+    int markPublished(@Param("ids") List<Long> ids, @Param("publishedDate") LocalDateTime publishedDate);
+}
@@ -0,0 +1,7 @@
+package study.datajpa.outbox;
+
+import java.time.LocalDateTime;
+
+public record OutboxMessage(Long id, String aggregateType, Long aggregateId, String eventType, String payload,
+                            LocalDateTime createdDate) {
+}
@@ -0,0 +1,62 @@
+package study.datajpa.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 아직 발행되지 않은 아웃박스 이벤트를 배치 단위로 읽어 OutboxSink로 내보내고 발행 완료로 표시한다.
+ */
+@Slf4j
+@Component
+public class OutboxPublisher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxSink outboxSink;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public OutboxPublisher(OutboxEventRepository outboxEventRepository,
+                           OutboxSink outboxSink,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${outbox.batch-size:100}") int batchSize) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxSink = outboxSink;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.publish-interval:1000}")
+    public void publishPending() {
+        int published;
+        do {
+            published = publishBatch();
+        } while (published == batchSize);
+    }
+
+    public int publishBatch() {
+        Integer published = transactionTemplate.execute(status -> {
+            List<OutboxEvent> events = outboxEventRepository.findByPublishedDateIsNullOrderByIdAsc(PageRequest.of(0, batchSize));
+            if (events.isEmpty()) {
+                return 0;
+            }
+            try {
+                outboxSink.publish(events.stream().map(OutboxEvent::toMessage).toList());
+            } catch (Exception e) {
+                log.warn("Failed to publish {} outbox events, will retry", events.size(), e);
+                status.setRollbackOnly();
+                return 0;
+            }
+            outboxEventRepository.markPublished(events.stream().map(OutboxEvent::getId).toList(), LocalDateTime.now());
+            return events.size();
+        });
+        return published != null ? published : 0;
+    }
+}
@@ -0,0 +1,112 @@
+package study.datajpa.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.event.MemberAgeBulkIncreasedEvent;
+import study.datajpa.event.MemberChangedEvent;
+import study.datajpa.event.TeamChangedEvent;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Member, Team 변경 이벤트를 모아 두었다가 커밋 직전에 같은 트랜잭션으로 아웃박스 테이블에 저장한다.
+ * 수정, 삭제 이벤트는 커밋 시점의 flush에서 발생하므로 Hibernate의 flush 이후 콜백에서 JDBC 배치로 저장한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxRecorder {
+
+    private static final String INSERT_SQL = "insert into outbox_event "
+            + "(aggregate_type, aggregate_id, event_type, payload, created_date) values (?, ?, ?, ?, ?)";
+
+    private final EntityManager em;
+    private final ObjectMapper objectMapper;
+
+    @EventListener
+    public void on(MemberChangedEvent event) {
+        record("Member", event.memberId(), event.type().name(), event);
+    }
+
+    @EventListener
+    public void on(TeamChangedEvent event) {
+        record("Team", event.teamId(), event.type().name(), event);
+    }
+
+    @EventListener
+    public void on(MemberAgeBulkIncreasedEvent event) {
+        record("Member", null, "BULK_AGE_INCREASED", event);
+    }
+
+    private void record(String aggregateType, Long aggregateId, String eventType, Object event) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            log.warn("Skip outbox event outside of transaction: {}", event);
+            return;
+        }
+        pendingMessages().add(new OutboxMessage(null, aggregateType, aggregateId, eventType, toJson(event), LocalDateTime.now()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<OutboxMessage> pendingMessages() {
+        List<OutboxMessage> messages = (List<OutboxMessage>) TransactionSynchronizationManager.getResource(this);
+        if (messages == null) {
+            List<OutboxMessage> pending = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(OutboxRecorder.this);
+                }
+            });
+            em.unwrap(SessionImplementor.class).getActionQueue()
+                    .registerProcess(session -> write(session, pending));
+            messages = pending;
+        }
+        return messages;
+    }
+
+    private void write(SessionImplementor session, List<OutboxMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+                for (OutboxMessage message : messages) {
+                    statement.setString(1, message.aggregateType());
+                    if (message.aggregateId() != null) {
+                        statement.setLong(2, message.aggregateId());
+                    } else {
+                        statement.setNull(2, Types.BIGINT);
+                    }
+                    statement.setString(3, message.eventType());
+                    statement.setString(4, message.payload());
+                    statement.setTimestamp(5, Timestamp.valueOf(message.createdDate()));
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+        messages.clear();
+    }
+
+    private String toJson(Object event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize outbox event " + event, e);
+        }
+    }
+}
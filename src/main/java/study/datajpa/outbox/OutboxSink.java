@@ -0,0 +1,12 @@
+package study.datajpa.outbox;
+
+import java.util.List;
+
+/**
+ * 아웃박스 이벤트를 외부로 내보내는 대상.
+ * 같은 이벤트가 다시 전달될 수 있으므로(at-least-once) 소비자는 id로 중복을 걸러야 한다.
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxMessage> messages) throws Exception;
+}
@@ -0,0 +1,108 @@
+package study.datajpa.purge;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * soft delete된 지 purge.retention이 지난 회원, 팀 행을 실제로 지운다.
+ * 한 번에 id 구간 purge.batch-size만큼만 각자의 트랜잭션으로 지우고 구간 사이에 purge.pause만큼 쉬어
+ * 잠금과 로그가 한꺼번에 몰리지 않게 한다. 삭제 이벤트는 soft delete 때 이미 발행됐으므로 다시 내지 않는다.
+ * <p>
+ * 팀은 참조하는 회원 행이 하나도 남지 않아야 지울 수 있으므로 회원을 먼저 지운다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "purge", name = "enabled", havingValue = "true")
+public class SoftDeletePurger {
+
+    private static final String MEMBER_DELETE_SQL = "delete from member"
+            + " where member_id between ? and ? and deleted_at < ?";
+    private static final String TEAM_DELETE_SQL = "delete from team"
+            + " where team_id between ? and ? and deleted_at < ?"
+            + " and not exists (select 1 from member m where m.team_id = team.team_id)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final int batchSize;
+    private final Duration pause;
+
+    public SoftDeletePurger(JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${purge.retention:7d}") Duration retention,
+                            @Value("${purge.batch-size:1000}") int batchSize,
+                            @Value("${purge.pause:100ms}") Duration pause) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.pause = pause;
+    }
+
+    @Scheduled(initialDelayString = "${purge.interval:3600000}", fixedDelayString = "${purge.interval:3600000}")
+    public void purge() {
+        long start = System.currentTimeMillis();
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int members = purgeMembers(cutoff);
+        int teams = purgeTeams(cutoff);
+        if (members > 0 || teams > 0) {
+            log.info("Purged {} members and {} teams deleted before {} in {}ms", members, teams, cutoff,
+                    System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * cutoff 전에 soft delete된 회원을 지운다.
+     *
+     * @return 지운 행 수
+     */
+    public int purgeMembers(LocalDateTime cutoff) {
+        return purge("member", "member_id", MEMBER_DELETE_SQL, cutoff);
+    }
+
+    public int purgeTeams(LocalDateTime cutoff) {
+        return purge("team", "team_id", TEAM_DELETE_SQL, cutoff);
+    }
+
+    // 다음 구간은 지울 행이 있는 가장 작은 id에서 시작하므로 id가 듬성듬성해도 빈 구간을 훑지 않는다.
+    private int purge(String table, String idColumn, String deleteSql, LocalDateTime cutoff) {
+        Timestamp before = Timestamp.valueOf(cutoff);
+        String nextSql = "select min(" + idColumn + ") from " + table + " where " + idColumn + " > ? and deleted_at < ?";
+        Long next = jdbcTemplate.queryForObject(nextSql, Long.class, Long.MIN_VALUE, before);
+        int purged = 0;
+        while (next != null) {
+            long from = next;
+            long to = from + batchSize - 1;
+            Integer deleted = transactionTemplate.execute(status -> jdbcTemplate.update(deleteSql, from, to, before));
+            purged += deleted != null ? deleted : 0;
+            next = jdbcTemplate.queryForObject(nextSql, Long.class, to, before);
+            if (next != null && !sleep()) {
+                break;
+            }
+        }
+        return purged;
+    }
+
+    private boolean sleep() {
+        if (pause.isZero()) {
+            return true;
+        }
+        try {
+            Thread.sleep(pause.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.stereotype.Component;
+import study.datajpa.entity.AuditClock;
+import study.datajpa.entity.BaseEntity;
+import study.datajpa.entity.BaseTimeEntity;
+import study.datajpa.entity.JpaBaseEntity;
+
+import java.time.LocalDateTime;
+
+/**
+ * 벌크 수정은 엔티티 리스너를 거치지 않으므로 감사 컬럼 수정을 update 문에 직접 추가한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class BulkUpdateAuditor {
+
+    private final AuditorAware<String> auditorAware;
+    private final AuditClock auditClock;
+
+    public <T> CriteriaUpdate<T> audit(CriteriaUpdate<T> update, Root<T> root) {
+        Class<? extends T> type = root.getJavaType();
+        LocalDateTime now = auditClock.now();
+
+        if (BaseTimeEntity.class.isAssignableFrom(type)) {
+            update.set(root.<LocalDateTime>get("lastModifiedDate"), now);
+        }
+        if (BaseEntity.class.isAssignableFrom(type)) {
+            update.set(root.<String>get("lastModifiedBy"), auditorAware.getCurrentAuditor().orElse(null));
+        }
+        if (JpaBaseEntity.class.isAssignableFrom(type)) {
+            update.set(root.<LocalDateTime>get("updatedDate"), now);
+        }
+        return update;
+    }
+}
@@ -2,18 +2,30 @@ package study.datajpa.repository;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Repository;
 import study.datajpa.entity.Member;
+import study.datajpa.event.MemberAgeBulkIncreasedEvent;
+import study.datajpa.lookup.UsernameIndex;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
+@RequiredArgsConstructor
 public class MemberJpaRepository {
 
     @PersistenceContext
     private EntityManager em;
 
+    private final BulkUpdateAuditor bulkUpdateAuditor;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UsernameIndex usernameIndex;
+
     public Member save(Member member) {
         em.persist(member);
         return member;
@@ -50,6 +62,9 @@ public class MemberJpaRepository {
     }
 
     public List<Member> findByUsername(String username) {
+        if (!usernameIndex.mightContain(username)) {
+            return List.of();
+        }
         return em.createNamedQuery("Member.findByUsername")
                 .setParameter("username", username)
                 .getResultList();
@@ -70,8 +85,15 @@ public class MemberJpaRepository {
     }
 
     public int bulkAgePlus(int age) {
-        return em.createQuery("update Member m set m.age = m.age + 1 where m.age >= :age")
-                .setParameter("age", age)
+        CriteriaBuilder builder = em.getCriteriaBuilder();
+        CriteriaUpdate<Member> update = builder.createCriteriaUpdate(Member.class);
+        Root<Member> m = update.from(Member.class);
+        update.set(m.<Integer>get("age"), builder.sum(m.get("age"), 1))
+                .where(builder.ge(m.get("age"), age));
+
+        int count = em.createQuery(bulkUpdateAuditor.audit(update, m))
                 .executeUpdate();
+        eventPublisher.publishEvent(new MemberAgeBulkIncreasedEvent(age, count));
+        return count;
     }
 }
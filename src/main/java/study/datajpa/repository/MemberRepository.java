@@ -2,22 +2,27 @@ package study.datajpa.repository;
 
 import jakarta.persistence.LockModeType;
 import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface MemberRepository extends JpaRepository<Member, Long>, MemberRepositoryCustom, JpaSpecificationExecutor<Member> {
 
     List<Member> findByUsernameAndAgeGreaterThan(String username, int age);
 
-    List<Member> findByUsername(@Param("username") String username);
-
     @Query("select m from Member m where m.username = :username and m.age = :age")
     List<Member> findUser(@Param("username") String username, @Param("age") int age);
 
@@ -27,9 +32,26 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
     @Query("select m.username from Member m")
     List<String> findUsernameList();
 
+    @Query("select m.lastModifiedDate from Member m where m.id = :id")
+    Optional<LocalDateTime> findLastModifiedDateById(@Param("id") Long id);
+
+    @Query("select m.id, m.username from Member m")
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    Stream<Object[]> streamUsernames();
+
+    /**
+     * 스냅샷 이후 추가(id 기준)되거나 수정된 회원의 id, username.
+     */
+    @Query("select m.id, m.username from Member m where m.id > :id or m.lastModifiedDate >= :since")
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    Stream<Object[]> streamUsernamesChangedSince(@Param("id") long id, @Param("since") LocalDateTime since);
+
     @Query("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m join m.team t")
     List<MemberDto> findMemberDto();
 
+    @Query("select new study.datajpa.dto.MemberDto(m.id, m.username, t.name) from Member m left join m.team t where m.id in :ids")
+    List<MemberDto> findMemberDtoByIdIn(@Param("ids") Collection<Long> ids);
+
     @Query("select m from Member m where m.username in :names")
     List<Member> findByNames(@Param("names") List<String> names);
 
@@ -38,9 +60,12 @@ public interface MemberRepository extends JpaRepository<Member, Long>, MemberRep
 
     Slice<Member> findSliceByAge(int age, Pageable pageable);
 
-    @Modifying(clearAutomatically = true)
-    @Query("update Member m set m.age = m.age + 1 where m.age >= :age")
-    int bulkAgePlus(@Param("age") int age);
+    /**
+     * id 기준 keyset 스크롤. 다음 Window는 offset 없이 이전 Window의 마지막 id 이후부터 읽는다.
+     * 트랜잭션 밖에서 쓰도록 팀을 함께 읽는다.
+     */
+    @EntityGraph(attributePaths = "team")
+    Window<Member> findByAgeOrderByIdAsc(int age, ScrollPosition position, Limit limit);
 
     @Query("select m from Member m left join fetch m.team t")
     List<Member> findMemberFetchJoin();
@@ -1,9 +1,45 @@
 package study.datajpa.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 
 import java.util.List;
 
 public interface MemberRepositoryCustom {
     List<Member> findMemberCustom();
+
+    /**
+     * UsernameIndex가 켜져 있고 없는 username이 확실하면 DB를 조회하지 않는다.
+     */
+    List<Member> findByUsername(String username);
+
+    int bulkAgePlus(int age);
+
+    /**
+     * 조건에 맞는 회원을 엔티티로 로딩하지 않고 soft delete한다.
+     * 삭제된 회원마다 MemberChangedEvent(DELETED)를 발행하고 팀 회원 수와 검색 인덱스도 함께 고친다.
+     *
+     * @return 삭제된 회원 수
+     */
+    int softDelete(Specification<Member> spec);
+
+    /**
+     * 엔티티를 거치지 않고 조회 결과 행을 바로 MemberDto로 만든다.
+     * findAll(pageable).map(MemberDto::new)와 결과는 같지만 엔티티, 스냅샷, 중간 Page를 만들지 않는다.
+     */
+    Page<MemberDto> findMemberDtoPage(Pageable pageable);
+
+    /**
+     * 검색 인덱스에서 username의 단어와 일치하는 회원을 찾는다. 정렬이 없으면 관련도 순이다.
+     * 정렬은 username만 지원하고 다른 속성이면 InvalidDataAccessApiUsageException으로 거부한다.
+     */
+    Page<Member> searchByUsername(String text, Pageable pageable);
+
+    /**
+     * 검색 인덱스에서 username의 단어가 prefix로 시작하는 회원을 찾는다. 정렬 규칙은 searchByUsername과 같다.
+     */
+    Page<Member> searchByUsernamePrefix(String prefix, Pageable pageable);
 }
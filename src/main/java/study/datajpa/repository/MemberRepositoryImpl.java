@@ -1,17 +1,181 @@
 package study.datajpa.repository;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.query.TupleTransformer;
+import org.hibernate.search.engine.search.predicate.dsl.PredicateFinalStep;
+import org.hibernate.search.engine.search.predicate.dsl.SearchPredicateFactory;
+import org.hibernate.search.engine.search.query.SearchResult;
+import org.hibernate.search.engine.search.sort.dsl.SearchSortFactory;
+import org.hibernate.search.engine.search.sort.dsl.SortFinalStep;
+import org.hibernate.search.mapper.orm.Search;
+import org.hibernate.search.mapper.orm.work.SearchIndexingPlan;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.AuditClock;
 import study.datajpa.entity.Member;
+import study.datajpa.event.EntityChangeType;
+import study.datajpa.event.MemberAgeBulkIncreasedEvent;
+import study.datajpa.event.MemberChangedEvent;
+import study.datajpa.event.MemberState;
+import study.datajpa.lookup.UsernameIndex;
 
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 @RequiredArgsConstructor
 public class MemberRepositoryImpl implements MemberRepositoryCustom{
 
+    private static final int SOFT_DELETE_CHUNK = 1000;
+
+    private static final TupleTransformer<MemberDto> MEMBER_DTO =
+            (tuple, aliases) -> new MemberDto((Long) tuple[0], (String) tuple[1], (String) tuple[2]);
+
     private final EntityManager em;
+    private final BulkUpdateAuditor bulkUpdateAuditor;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UsernameIndex usernameIndex;
+    private final AuditClock auditClock;
+
     @Override
     public List<Member> findMemberCustom() {
         return em.createQuery("select m from Member m", Member.class).getResultList();
     }
+
+    @Override
+    public List<Member> findByUsername(String username) {
+        if (!usernameIndex.mightContain(username)) {
+            return List.of();
+        }
+        return em.createNamedQuery("Member.findByUsername", Member.class)
+                .setParameter("username", username)
+                .getResultList();
+    }
+
+    @Override
+    @Transactional
+    public int bulkAgePlus(int age) {
+        CriteriaBuilder builder = em.getCriteriaBuilder();
+        CriteriaUpdate<Member> update = builder.createCriteriaUpdate(Member.class);
+        Root<Member> m = update.from(Member.class);
+        update.set(m.<Integer>get("age"), builder.sum(m.get("age"), 1))
+                .where(builder.ge(m.get("age"), age));
+
+        int count = em.createQuery(bulkUpdateAuditor.audit(update, m)).executeUpdate();
+        em.clear();
+        eventPublisher.publishEvent(new MemberAgeBulkIncreasedEvent(age, count));
+        return count;
+    }
+
+    /**
+     * 대상의 id와 상태만 조회한 뒤 id 묶음마다 update 한 번으로 deleted_at을 채운다.
+     * 이벤트의 previous로 쓸 상태가 필요하므로 조회는 하지만 엔티티와 스냅샷은 만들지 않는다.
+     */
+    @Override
+    @Transactional
+    public int softDelete(Specification<Member> spec) {
+        CriteriaBuilder builder = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Member> m = query.from(Member.class);
+        query.multiselect(m.get("id"), m.get("username"), m.get("age"), m.get("team").get("id"))
+                .where(spec.toPredicate(m, query, builder));
+        Map<Long, MemberState> targets = new LinkedHashMap<>();
+        // 같은 회원을 동시에 지우는 트랜잭션이 이벤트를 두 번 내지 않도록 대상 행을 잠근다.
+        for (Tuple row : em.createQuery(query).setLockMode(LockModeType.PESSIMISTIC_WRITE).getResultList()) {
+            targets.put(row.get(0, Long.class),
+                    new MemberState(row.get(1, String.class), row.get(2, Integer.class), row.get(3, Long.class)));
+        }
+        if (targets.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime now = auditClock.now();
+        List<Long> ids = List.copyOf(targets.keySet());
+        for (int from = 0; from < ids.size(); from += SOFT_DELETE_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + SOFT_DELETE_CHUNK, ids.size()));
+            CriteriaUpdate<Member> update = builder.createCriteriaUpdate(Member.class);
+            Root<Member> u = update.from(Member.class);
+            update.set(u.<LocalDateTime>get("deletedAt"), now)
+                    .where(u.get("id").in(chunk), builder.isNull(u.get("deletedAt")));
+            em.createQuery(bulkUpdateAuditor.audit(update, u)).executeUpdate();
+        }
+
+        em.clear();
+
+        SearchIndexingPlan indexingPlan = Search.session(em).indexingPlan();
+        targets.forEach((id, state) -> {
+            indexingPlan.purge(Member.class, id, null);
+            eventPublisher.publishEvent(new MemberChangedEvent(EntityChangeType.DELETED, id, state, state));
+        });
+        return targets.size();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public Page<MemberDto> findMemberDtoPage(Pageable pageable) {
+        String jpql = QueryUtils.applySorting(
+                "select m.id, m.username, t.name from Member m left join m.team t", pageable.getSort(), "m");
+        org.hibernate.query.Query<Object[]> query = em.createQuery(jpql, Object[].class)
+                .unwrap(org.hibernate.query.Query.class);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset()).setMaxResults(pageable.getPageSize());
+        }
+        List<MemberDto> content = query.setTupleTransformer(MEMBER_DTO).getResultList();
+        return PageableExecutionUtils.getPage(content, pageable,
+                () -> em.createQuery("select count(m) from Member m", Long.class).getSingleResult());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Member> searchByUsername(String text, Pageable pageable) {
+        return search(f -> f.match().field("username").matching(text), pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Member> searchByUsernamePrefix(String prefix, Pageable pageable) {
+        return search(f -> f.match().field("username_prefix").matching(prefix), pageable);
+    }
+
+    private Page<Member> search(Function<SearchPredicateFactory, PredicateFinalStep> predicate, Pageable pageable) {
+        SearchResult<Member> result = Search.session(em).search(Member.class)
+                .where(predicate)
+                .sort(f -> sort(f, pageable.getSort()))
+                .fetch((int) pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(result.hits(), pageable, result.total().hitCount());
+    }
+
+    /**
+     * 검색 인덱스에는 username만 정렬 필드로 색인되어 있으므로 다른 속성은 조용히 무시하지 않고 거부한다.
+     */
+    private SortFinalStep sort(SearchSortFactory f, Sort sort) {
+        for (Sort.Order order : sort) {
+            if (!"username".equals(order.getProperty())) {
+                throw new IllegalArgumentException("Cannot sort member search results by " + order.getProperty());
+            }
+        }
+        Sort.Order order = sort.getOrderFor("username");
+        if (order == null) {
+            return f.score().then().field("username_sort");
+        }
+        return order.isAscending() ? f.field("username_sort") : f.field("username_sort").desc();
+    }
 }
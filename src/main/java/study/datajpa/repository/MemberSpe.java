@@ -2,6 +2,7 @@ package study.datajpa.repository;
 
 import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.util.StringUtils;
 import study.datajpa.entity.Member;
@@ -10,16 +11,48 @@ import study.datajpa.entity.Team;
 public class MemberSpe {
     public static Specification<Member> teamName(final String teamName) {
         return (Specification<Member>) (root, query, builder) -> {
-            if (StringUtils.isEmpty(teamName)) {
+            if (!StringUtils.hasText(teamName)) {
                 return null;
             }
-            Join<Member, Team> t = root.join("team", JoinType.INNER); //회원과 조인
-            return builder.equal(t.get("name"), teamName);
+            return builder.equal(team(root).get("name"), teamName);
         };
     }
+
+    public static Specification<Member> teamId(final Long teamId) {
+        return (Specification<Member>) (root, query, builder) -> {
+            if (teamId == null) {
+                return null;
+            }
+            // FK 컬럼으로 비교하므로 조인이 필요 없다.
+            return builder.equal(root.get("team").get("id"), teamId);
+        };
+    }
+
     public static Specification<Member> username(final String username) {
         return (Specification<Member>) (root, query, builder) ->
                 builder.equal(root.get("username"), username);
     }
 
+    public static Specification<Member> ageGreaterThan(final Integer age) {
+        return (Specification<Member>) (root, query, builder) -> {
+            if (age == null) {
+                return null;
+            }
+            return builder.greaterThan(root.get("age"), age);
+        };
+    }
+
+    /**
+     * 같은 Root에 이미 만들어진 team INNER 조인이 있으면 재사용한다.
+     * 팀 조건을 여러 개 조합해도 조인은 한 번만 생성된다.
+     */
+    @SuppressWarnings("unchecked")
+    static Join<Member, Team> team(Root<Member> root) {
+        return root.getJoins().stream()
+                .filter(join -> join.getJoinType() == JoinType.INNER)
+                .filter(join -> "team".equals(join.getAttribute().getName()))
+                .map(join -> (Join<Member, Team>) join)
+                .findFirst()
+                .orElseGet(() -> root.join("team", JoinType.INNER)); //회원과 조인
+    }
 }
@@ -0,0 +1,19 @@
+package study.datajpa.repository;
+
+import lombok.Getter;
+
+/**
+ * 삭제되지 않은 회원이 남아 있는 팀을 삭제하려 할 때 던진다.
+ */
+@Getter
+public class TeamNotEmptyException extends RuntimeException {
+
+    private final Long teamId;
+    private final long memberCount;
+
+    public TeamNotEmptyException(Long teamId, long memberCount) {
+        super("Team " + teamId + " still has " + memberCount + " members");
+        this.teamId = teamId;
+        this.memberCount = memberCount;
+    }
+}
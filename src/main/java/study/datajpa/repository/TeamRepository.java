@@ -1,7 +1,34 @@
 package study.datajpa.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import study.datajpa.dto.TeamStatsDto;
 import study.datajpa.entity.Team;
 
-public interface TeamRepository extends JpaRepository<Team, Long> {
+import java.util.List;
+import java.util.Optional;
+
+public interface TeamRepository extends JpaRepository<Team, Long>, TeamRepositoryCustom {
+
+    // CrudRepository와 TeamRepositoryCustom의 같은 메서드를 하나로 모아 TeamRepositoryImpl의 구현을 쓴다.
+    @Override
+    void delete(Team team);
+
+    @Override
+    void deleteById(Long teamId);
+
+    @Query("select count(m) from Member m where m.team.id = :teamId")
+    long countMembers(@Param("teamId") Long teamId);
+
+    @Query("select avg(m.age) from Member m where m.team.id = :teamId")
+    Double averageAge(@Param("teamId") Long teamId);
+
+    @Query("select new study.datajpa.dto.TeamStatsDto(t.id, t.name, count(m), avg(m.age), min(m.age), max(m.age))" +
+            " from Team t left join t.members m group by t.id, t.name order by t.id")
+    List<TeamStatsDto> findTeamStats();
+
+    @Query("select new study.datajpa.dto.TeamStatsDto(t.id, t.name, count(m), avg(m.age), min(m.age), max(m.age))" +
+            " from Team t left join t.members m where t.id = :teamId group by t.id, t.name")
+    Optional<TeamStatsDto> findTeamStats(@Param("teamId") Long teamId);
 }
@@ -0,0 +1,17 @@
+package study.datajpa.repository;
+
+import study.datajpa.entity.Team;
+
+public interface TeamRepositoryCustom {
+
+    /**
+     * 삭제되지 않은 회원이 남아 있으면 TeamNotEmptyException을 던지고 삭제하지 않는다.
+     * 확인과 삭제 사이에 회원이 추가되는 경우는 Team의 @SQLDelete 조건이 막는다.
+     */
+    void delete(Team team);
+
+    /**
+     * delete(Team)과 같다. 없는 팀이면 아무것도 하지 않는다.
+     */
+    void deleteById(Long teamId);
+}
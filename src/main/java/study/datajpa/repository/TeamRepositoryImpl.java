@@ -0,0 +1,40 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Team;
+
+@RequiredArgsConstructor
+public class TeamRepositoryImpl implements TeamRepositoryCustom {
+
+    private final EntityManager em;
+
+    @Override
+    @Transactional
+    public void delete(Team team) {
+        if (team.getId() == null) {
+            return;
+        }
+        // count 쿼리가 자동 flush하므로 같은 트랜잭션에서 지운 회원은 세지 않는다.
+        long memberCount = em.createQuery("select count(m) from Member m where m.team.id = :teamId", Long.class)
+                .setParameter("teamId", team.getId())
+                .getSingleResult();
+        if (memberCount > 0) {
+            throw new TeamNotEmptyException(team.getId(), memberCount);
+        }
+        Team managed = em.contains(team) ? team : em.find(Team.class, team.getId());
+        if (managed != null) {
+            em.remove(managed);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void deleteById(Long teamId) {
+        Team team = em.find(Team.class, teamId);
+        if (team != null) {
+            delete(team);
+        }
+    }
+}
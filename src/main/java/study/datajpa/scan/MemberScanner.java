@@ -0,0 +1,64 @@
+package study.datajpa.scan;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * 배치 작업용 회원 전체 스캔. findSliceByAge로 페이지마다 왕복을 기다리는 대신
+ * keyset Window를 백그라운드에서 scan.prefetch-depth개까지 미리 읽는다.
+ * Window마다 별도 읽기 전용 트랜잭션으로 읽으므로 돌려주는 회원은 준영속 상태이고 팀은 함께 로딩되어 있다.
+ */
+@Component
+public class MemberScanner {
+
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int prefetchDepth;
+    private final ExecutorService executor = Executors.newCachedThreadPool(daemonThreadFactory());
+
+    public MemberScanner(MemberRepository memberRepository,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${scan.prefetch-depth:2}") int prefetchDepth) {
+        this.memberRepository = memberRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.prefetchDepth = prefetchDepth;
+    }
+
+    public PrefetchingWindowIterator<Member> slicesByAge(int age, int sliceSize) {
+        return new PrefetchingWindowIterator<>(
+                position -> transactionTemplate.execute(status ->
+                        memberRepository.findByAgeOrderByIdAsc(age, position, Limit.of(sliceSize))),
+                ScrollPosition.keyset(), prefetchDepth, executor);
+    }
+
+    /**
+     * 다 쓰면 닫아야 읽기 스레드가 정리된다. try-with-resources로 감싸서 쓴다.
+     */
+    public Stream<Member> streamByAge(int age, int sliceSize) {
+        return slicesByAge(age, sliceSize).stream();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static CustomizableThreadFactory daemonThreadFactory() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("member-scan-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+}
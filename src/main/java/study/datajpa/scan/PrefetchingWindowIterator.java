@@ -0,0 +1,162 @@
+package study.datajpa.scan;
+
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Window를 백그라운드 스레드에서 미리 읽어두고 한 Window씩 돌려주는 Iterator.
+ * 다음 Window는 이전 Window의 마지막 위치부터 이어서 읽고, 큐에 depth개가 차면 소비될 때까지 읽기를 멈춘다.
+ * 호출하는 쪽이 한 Window를 처리하는 동안 다음 Window의 조회가 진행된다.
+ * <p>
+ * 읽기 중 발생한 예외는 해당 위치를 꺼낼 때 다시 던진다. 끝까지 읽지 않으면 close()로 읽기 스레드를 멈춘다.
+ */
+public class PrefetchingWindowIterator<T> implements Iterator<List<T>>, AutoCloseable {
+
+    private static final Chunk<?> END = new Chunk<>(List.of(), null);
+
+    private final BlockingQueue<Chunk<T>> queue;
+    private final FutureTask<Void> producer;
+    private Chunk<T> next;
+
+    public PrefetchingWindowIterator(Function<ScrollPosition, Window<T>> fetcher, ScrollPosition start,
+                                     int depth, Executor executor) {
+        this.queue = new ArrayBlockingQueue<>(depth);
+        this.producer = new FutureTask<>(() -> produce(fetcher, start), null);
+        executor.execute(producer);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void produce(Function<ScrollPosition, Window<T>> fetcher, ScrollPosition position) {
+        try {
+            Window<T> window;
+            do {
+                window = fetcher.apply(position);
+                if (window.isEmpty()) {
+                    break;
+                }
+                queue.put(new Chunk<>(window.getContent(), null));
+                position = window.positionAt(window.size() - 1);
+            } while (window.hasNext());
+            queue.put((Chunk<T>) END);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+            // Error도 넘긴다. FutureTask가 삼키면 꺼내는 쪽은 오지 않을 Window를 영원히 기다린다.
+            try {
+                queue.put(new Chunk<>(List.of(), e));
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the next window", e);
+            }
+        }
+        if (next.failure() instanceof RuntimeException e) {
+            throw e;
+        }
+        if (next.failure() instanceof Error e) {
+            throw e;
+        }
+        if (next.failure() != null) {
+            throw new IllegalStateException("Failed to read the next window", next.failure());
+        }
+        return next != END;
+    }
+
+    @Override
+    public List<T> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        List<T> content = next.content();
+        next = null;
+        return content;
+    }
+
+    /**
+     * 원소 단위 Stream. 병렬 Stream에서는 미리 읽힌 Window 하나씩을 다른 스레드로 나눠준다.
+     * Stream을 닫으면 읽기도 멈춘다.
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(new WindowSpliterator(), false).onClose(this::close);
+    }
+
+    @Override
+    public void close() {
+        producer.cancel(true);
+        queue.clear();
+    }
+
+    private record Chunk<T>(List<T> content, Throwable failure) {
+    }
+
+    private class WindowSpliterator implements Spliterator<T> {
+
+        private List<T> window = Collections.emptyList();
+        private int index;
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            while (index >= window.size()) {
+                if (!hasNext()) {
+                    return false;
+                }
+                window = next();
+                index = 0;
+            }
+            action.accept(window.get(index++));
+            return true;
+        }
+
+        /**
+         * 현재 Window의 남은 원소, 없으면 다음 Window를 떼어준다. 앞쪽 원소를 넘기므로 순서가 유지된다.
+         */
+        @Override
+        public Spliterator<T> trySplit() {
+            if (index >= window.size()) {
+                if (!hasNext()) {
+                    return null;
+                }
+                window = next();
+                index = 0;
+            }
+            Spliterator<T> prefix = window.subList(index, window.size()).spliterator();
+            window = Collections.emptyList();
+            index = 0;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package study.datajpa.snapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * 회원, 팀 행을 담은 바이너리 스냅샷 파일. 읽을 때는 파일을 메모리 매핑해 복사 없이 훑는다.
+ * <pre>
+ * header  magic(4) version(4) createdAt(8) teamCount(4) memberCount(4) maxMemberId(8) payloadLength(8) crc32(8)
+ * team    id(8) name
+ * member  id(8) age(4) teamId(8, 없으면 -1) username
+ * </pre>
+ * 문자열은 UTF-8 바이트 길이(2, null이면 0xFFFF)와 바이트로 쓴다. payload 전체의 CRC32가 맞지 않으면 버린다.
+ */
+public final class MemberSnapshot {
+
+    static final int MAGIC = 0x4D534E50;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 48;
+    private static final int NULL_LENGTH = 0xFFFF;
+
+    private final Instant createdAt;
+    private final int teamCount;
+    private final int memberCount;
+    private final long maxMemberId;
+    private final ByteBuffer payload;
+
+    private MemberSnapshot(Instant createdAt, int teamCount, int memberCount, long maxMemberId, ByteBuffer payload) {
+        this.createdAt = createdAt;
+        this.teamCount = teamCount;
+        this.memberCount = memberCount;
+        this.maxMemberId = maxMemberId;
+        this.payload = payload;
+    }
+
+    /**
+     * 파일을 매핑하고 헤더와 체크섬을 검사한다. 형식이 다르거나 깨졌거나 maxAge보다 오래됐으면 예외를 던진다.
+     */
+    public static MemberSnapshot open(Path file, Duration maxAge, Instant now) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new InvalidSnapshotException("unexpected size " + size);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new InvalidSnapshotException("unknown format");
+        }
+        Instant createdAt = Instant.ofEpochMilli(buffer.getLong(8));
+        if (createdAt.plus(maxAge).isBefore(now)) {
+            throw new InvalidSnapshotException("stale, created at " + createdAt);
+        }
+        long payloadLength = buffer.getLong(32);
+        if (payloadLength != buffer.capacity() - HEADER_BYTES) {
+            throw new InvalidSnapshotException("truncated");
+        }
+        ByteBuffer payload = buffer.slice(HEADER_BYTES, (int) payloadLength);
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        if (crc.getValue() != buffer.getLong(40)) {
+            throw new InvalidSnapshotException("checksum mismatch");
+        }
+        return new MemberSnapshot(createdAt, buffer.getInt(16), buffer.getInt(20), buffer.getLong(24), payload);
+    }
+
+    public static Writer writer(Path file, Instant createdAt) throws IOException {
+        return new Writer(file, createdAt);
+    }
+
+    public Instant createdAt() {
+        return createdAt;
+    }
+
+    public int memberCount() {
+        return memberCount;
+    }
+
+    public long maxMemberId() {
+        return maxMemberId;
+    }
+
+    public Map<Long, String> teams() {
+        Map<Long, String> teams = new HashMap<>(teamCount * 2);
+        int position = 0;
+        for (int i = 0; i < teamCount; i++) {
+            long id = payload.getLong(position);
+            position += Long.BYTES;
+            teams.put(id, string(position));
+            position = skipString(position);
+        }
+        return teams;
+    }
+
+    public void forEachMember(MemberRow row) {
+        int position = 0;
+        for (int i = 0; i < teamCount; i++) {
+            position = skipString(position + Long.BYTES);
+        }
+        for (int i = 0; i < memberCount; i++) {
+            long id = payload.getLong(position);
+            int age = payload.getInt(position + 8);
+            long teamId = payload.getLong(position + 12);
+            position += 20;
+            row.accept(id, string(position), age, teamId < 0 ? null : teamId);
+            position = skipString(position);
+        }
+    }
+
+    private String string(int position) {
+        int length = Short.toUnsignedInt(payload.getShort(position));
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        payload.get(position + 2, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int skipString(int position) {
+        int length = Short.toUnsignedInt(payload.getShort(position));
+        return position + 2 + (length == NULL_LENGTH ? 0 : length);
+    }
+
+    @FunctionalInterface
+    public interface MemberRow {
+        void accept(long id, String username, int age, Long teamId);
+    }
+
+    public static class InvalidSnapshotException extends IOException {
+        InvalidSnapshotException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * 팀을 모두 쓴 뒤 회원을 쓴다. 임시 파일에 쓰고 commit()에서 헤더를 채운 뒤 원래 이름으로 바꾼다.
+     */
+    public static final class Writer implements Closeable {
+
+        private final Path file;
+        private final Path temp;
+        private final Instant createdAt;
+        private final CRC32 crc = new CRC32();
+        private final DataOutputStream out;
+        private int teamCount;
+        private int memberCount;
+        private long maxMemberId;
+        private long payloadLength;
+        private boolean committed;
+
+        private Writer(Path file, Instant createdAt) throws IOException {
+            this.file = file;
+            this.createdAt = createdAt;
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            this.temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            OutputStream stream = Files.newOutputStream(temp);
+            stream.write(new byte[HEADER_BYTES]);
+            this.out = new DataOutputStream(new CheckedOutputStream(new BufferedOutputStream(stream, 64 * 1024), crc));
+        }
+
+        public void team(long id, String name) throws IOException {
+            if (memberCount > 0) {
+                throw new IllegalStateException("Teams must be written before members");
+            }
+            out.writeLong(id);
+            writeString(name);
+            teamCount++;
+        }
+
+        public void member(long id, String username, int age, Long teamId) throws IOException {
+            out.writeLong(id);
+            out.writeInt(age);
+            out.writeLong(teamId != null ? teamId : -1);
+            writeString(username);
+            memberCount++;
+            maxMemberId = Math.max(maxMemberId, id);
+        }
+
+        private void writeString(String value) throws IOException {
+            if (value == null) {
+                out.writeShort(NULL_LENGTH);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeShort(bytes.length);
+            out.write(bytes);
+        }
+
+        public void commit() throws IOException {
+            out.flush();
+            payloadLength = out.size() & 0xFFFFFFFFL;
+            out.close();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                    .putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putLong(createdAt.toEpochMilli())
+                    .putInt(teamCount)
+                    .putInt(memberCount)
+                    .putLong(maxMemberId)
+                    .putLong(payloadLength)
+                    .putLong(crc.getValue())
+                    .flip();
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.write(header, 0);
+                channel.force(true);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+        }
+
+        public int memberCount() {
+            return memberCount;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                out.close();
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package study.datajpa.snapshot;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * 회원, 팀 스냅샷을 snapshot.interval마다 파일로 쓰고 기동 시 읽어준다.
+ * 스냅샷 시각보다 snapshot.catch-up-margin만큼 앞선 시점부터의 변경은 읽는 쪽에서 DB로 따라잡는다.
+ * 진행 중이던 트랜잭션의 수정일자는 커밋보다 앞서므로 여유를 둔다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "snapshot", name = "enabled", havingValue = "true")
+public class MemberSnapshotStore {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Path file;
+    private final Duration maxAge;
+    private final Duration catchUpMargin;
+
+    public MemberSnapshotStore(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${snapshot.file:snapshot/members.snap}") String file,
+                               @Value("${snapshot.max-age:1h}") Duration maxAge,
+                               @Value("${snapshot.catch-up-margin:1m}") Duration catchUpMargin) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.file = Path.of(file);
+        this.maxAge = maxAge;
+        this.catchUpMargin = catchUpMargin;
+    }
+
+    public Duration catchUpMargin() {
+        return catchUpMargin;
+    }
+
+    /**
+     * 유효한 스냅샷이 있으면 돌려준다. 없거나 깨졌거나 오래됐으면 비어 있다.
+     */
+    public Optional<MemberSnapshot> load() {
+        try {
+            return Optional.of(MemberSnapshot.open(file, maxAge, Instant.now()));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            log.warn("Ignoring member snapshot {}: {}", file, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 팀, 회원 전체를 한 읽기 전용 트랜잭션에서 읽어 새 스냅샷으로 바꾼다.
+     *
+     * @return 기록한 회원 수
+     */
+    @Scheduled(initialDelayString = "${snapshot.interval:600000}", fixedDelayString = "${snapshot.interval:600000}")
+    public int write() {
+        long start = System.currentTimeMillis();
+        Integer written = transactionTemplate.execute(status -> {
+            try (MemberSnapshot.Writer writer = MemberSnapshot.writer(file, Instant.now())) {
+                jdbcTemplate.query("select team_id, name from team where deleted_at is null", rs -> {
+                    try {
+                        writer.team(rs.getLong(1), rs.getString(2));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                jdbcTemplate.query("select member_id, username, age, team_id from member where deleted_at is null", rs -> {
+                    try {
+                        writer.member(rs.getLong(1), rs.getString(2), rs.getInt(3), rs.getObject(4, Long.class));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                writer.commit();
+                return writer.memberCount();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot write member snapshot " + file, e);
+            }
+        });
+        log.info("Wrote {} members to snapshot {} ({} KB) in {}ms", written, file,
+                size() / 1024, System.currentTimeMillis() - start);
+        return written != null ? written : 0;
+    }
+
+    private long size() {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package study.datajpa.summary;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.event.EntityChangeType;
+import study.datajpa.event.MemberChangedEvent;
+import study.datajpa.event.MemberState;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 회원 변경 이벤트로 team.member_count를 갱신한다. team.member-count.enabled일 때만 동작한다.
+ * 트랜잭션 동안 팀별 증감을 모았다가 커밋 직전에 member_count = member_count + ? 로 반영하므로
+ * 동시에 같은 팀을 바꾸는 트랜잭션끼리 값을 덮어쓰지 않고, 팀 엔티티도 수정되지 않는다.
+ */
+@Component
+@ConditionalOnProperty(prefix = "team.member-count", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class TeamMemberCountUpdater {
+
+    private static final String UPDATE_SQL = "update team set member_count = member_count + ? where team_id = ?";
+
+    private final EntityManager em;
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener
+    public void on(MemberChangedEvent event) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+        MemberState state = event.state();
+        MemberState previous = event.previous();
+        if (event.type() == EntityChangeType.CREATED) {
+            add(state, 1);
+        } else if (event.type() == EntityChangeType.DELETED) {
+            add(previous != null ? previous : state, -1);
+        } else if (previous != null && !Objects.equals(previous.teamId(), state.teamId())) {
+            add(previous, -1);
+            add(state, 1);
+        }
+    }
+
+    private void add(MemberState state, int sign) {
+        if (state == null || state.teamId() == null) {
+            return;
+        }
+        pending().merge(state.teamId(), sign, Integer::sum);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, Integer> pending() {
+        Map<Long, Integer> pending = (Map<Long, Integer>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<Long, Integer> created = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TeamMemberCountUpdater.this);
+                }
+            });
+            em.unwrap(SessionImplementor.class).getActionQueue()
+                    .registerProcess(session -> apply(created));
+            pending = created;
+        }
+        return pending;
+    }
+
+    private void apply(Map<Long, Integer> pending) {
+        List<Object[]> counts = pending.entrySet().stream()
+                .filter(entry -> entry.getValue() != 0)
+                .map(entry -> new Object[]{entry.getValue(), entry.getKey()})
+                .toList();
+        jdbcTemplate.batchUpdate(UPDATE_SQL, counts);
+        pending.clear();
+    }
+}
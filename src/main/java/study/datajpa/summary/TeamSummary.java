@@ -0,0 +1,45 @@
+package study.datajpa.summary;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * 팀별 회원 수, 나이 합계, 나이대별 회원 수를 미리 집계해 둔 테이블.
+ * 값은 TeamSummaryUpdater가 JDBC로 갱신하므로 JPA로는 읽기만 한다.
+ */
+@Entity
+@Immutable
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@ToString
+public class TeamSummary {
+
+    @Id
+    private Long teamId;
+    private long memberCount;
+    private long ageSum;
+    @Column(name = "age_under20")
+    private long ageUnder20;
+    @Column(name = "age20s")
+    private long age20s;
+    @Column(name = "age30s")
+    private long age30s;
+    @Column(name = "age40s")
+    private long age40s;
+    @Column(name = "age50plus")
+    private long age50plus;
+
+    public double getAverageAge() {
+        return memberCount == 0 ? 0 : (double) ageSum / memberCount;
+    }
+
+    public long[] getAgeHistogram() {
+        return new long[]{ageUnder20, age20s, age30s, age40s, age50plus};
+    }
+}
@@ -0,0 +1,90 @@
+package study.datajpa.summary;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * member, team 테이블에서 다시 집계한 값과 team_summary를 비교해 어긋난 팀을 고친다.
+ * 벌크 삭제처럼 이벤트를 거치지 않는 변경으로 생긴 차이를 주기적으로 바로잡는다.
+ */
+@Slf4j
+@Component
+public class TeamSummaryChecker {
+
+    private static final String AGGREGATE_SQL = "select t.team_id, count(m.member_id), coalesce(sum(m.age), 0),"
+            + " coalesce(sum(case when m.age < 20 then 1 else 0 end), 0),"
+            + " coalesce(sum(case when m.age >= 20 and m.age < 30 then 1 else 0 end), 0),"
+            + " coalesce(sum(case when m.age >= 30 and m.age < 40 then 1 else 0 end), 0),"
+            + " coalesce(sum(case when m.age >= 40 and m.age < 50 then 1 else 0 end), 0),"
+            + " coalesce(sum(case when m.age >= 50 then 1 else 0 end), 0)"
+            + " from team t left join member m on m.team_id = t.team_id and m.deleted_at is null"
+            + " where t.deleted_at is null group by t.team_id";
+    private static final String SUMMARY_SQL = "select team_id, member_count, age_sum,"
+            + " age_under20, age20s, age30s, age40s, age50plus from team_summary";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public TeamSummaryChecker(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${team-summary.check-interval:600000}")
+    public void checkAndRepair() {
+        List<Long> repaired = transactionTemplate.execute(status -> repair());
+        if (repaired != null && !repaired.isEmpty()) {
+            log.warn("Repaired team summary of teams {}", repaired);
+        }
+    }
+
+    /**
+     * 어긋난 팀의 집계를 다시 쓰고 그 팀 id 목록을 돌려준다.
+     */
+    public List<Long> repair() {
+        Map<Long, long[]> expected = read(AGGREGATE_SQL);
+        Map<Long, long[]> actual = read(SUMMARY_SQL);
+        List<Long> repaired = new ArrayList<>();
+
+        expected.forEach((teamId, values) -> {
+            long[] current = actual.remove(teamId);
+            if (Arrays.equals(values, current)) {
+                return;
+            }
+            jdbcTemplate.update("delete from team_summary where team_id = ?", teamId);
+            jdbcTemplate.update("insert into team_summary"
+                            + " (team_id, member_count, age_sum, age_under20, age20s, age30s, age40s, age50plus)"
+                            + " values (?, ?, ?, ?, ?, ?, ?, ?)",
+                    teamId, values[0], values[1], values[2], values[3], values[4], values[5], values[6]);
+            repaired.add(teamId);
+        });
+        // 팀이 삭제됐는데 남아있는 집계
+        for (Long teamId : actual.keySet()) {
+            jdbcTemplate.update("delete from team_summary where team_id = ?", teamId);
+            repaired.add(teamId);
+        }
+        return repaired;
+    }
+
+    private Map<Long, long[]> read(String sql) {
+        Map<Long, long[]> rows = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            long[] values = new long[7];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = rs.getLong(i + 2);
+            }
+            rows.put(rs.getLong(1), values);
+        });
+        return rows;
+    }
+}
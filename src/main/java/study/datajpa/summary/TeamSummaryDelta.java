@@ -0,0 +1,41 @@
+package study.datajpa.summary;
+
+/**
+ * 한 트랜잭션 안에서 팀 하나에 쌓인 집계 변화량.
+ */
+class TeamSummaryDelta {
+
+    static final int BUCKETS = 5;
+
+    long memberCount;
+    long ageSum;
+    final long[] buckets = new long[BUCKETS];
+
+    /**
+     * 20세 미만, 20대, 30대, 40대, 50세 이상 순서의 나이대 인덱스.
+     */
+    static int bucket(int age) {
+        if (age < 20) {
+            return 0;
+        }
+        return Math.min((age - 10) / 10, BUCKETS - 1);
+    }
+
+    void add(int age, int sign) {
+        memberCount += sign;
+        ageSum += (long) age * sign;
+        buckets[bucket(age)] += sign;
+    }
+
+    boolean isEmpty() {
+        if (memberCount != 0 || ageSum != 0) {
+            return false;
+        }
+        for (long bucket : buckets) {
+            if (bucket != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,6 @@
+package study.datajpa.summary;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface TeamSummaryRepository extends JpaRepository<TeamSummary, Long> {
+}
@@ -0,0 +1,154 @@
+package study.datajpa.summary;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.datajpa.event.EntityChangeType;
+import study.datajpa.event.MemberAgeBulkIncreasedEvent;
+import study.datajpa.event.MemberChangedEvent;
+import study.datajpa.event.MemberState;
+import study.datajpa.event.TeamChangedEvent;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 회원, 팀 변경 이벤트로 team_summary를 증분 갱신한다.
+ * 트랜잭션 동안 팀별 변화량을 모았다가 커밋 직전 flush 이후에 팀마다 update 한 번으로 반영한다.
+ * <p>
+ * 집계 행은 팀을 만든 트랜잭션에서 함께 만들고 이후에는 update만 한다. 행이 없으면(JDBC로 만든 팀 등)
+ * 여기서 insert하지 않고 TeamSummaryChecker가 원본에서 다시 계산하게 둔다.
+ * 동시에 처음 변경된 트랜잭션끼리 insert가 겹쳐 한쪽이 기본 키 위반으로 실패하지 않게 하기 위해서다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TeamSummaryUpdater {
+
+    private static final String UPDATE_SQL = "update team_summary set member_count = member_count + ?, age_sum = age_sum + ?,"
+            + " age_under20 = age_under20 + ?, age20s = age20s + ?, age30s = age30s + ?, age40s = age40s + ?,"
+            + " age50plus = age50plus + ? where team_id = ?";
+    private static final String INSERT_SQL = "insert into team_summary"
+            + " (member_count, age_sum, age_under20, age20s, age30s, age40s, age50plus, team_id)"
+            + " values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // 벌크 수정 후 나이대 경계(20, 30, 40, 50세)를 넘은 회원 수를 팀별로 센다.
+    private static final String BULK_SQL = "select team_id, count(*),"
+            + " sum(case when age = 20 then 1 else 0 end), sum(case when age = 30 then 1 else 0 end),"
+            + " sum(case when age = 40 then 1 else 0 end), sum(case when age = 50 then 1 else 0 end)"
+            + " from member where age > ? and team_id is not null and deleted_at is null group by team_id";
+
+    private final EntityManager em;
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener
+    public void on(MemberChangedEvent event) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+        MemberState state = event.state();
+        MemberState previous = event.previous();
+        if (event.type() == EntityChangeType.CREATED) {
+            add(state, 1);
+        } else if (event.type() == EntityChangeType.DELETED) {
+            add(previous != null ? previous : state, -1);
+        } else {
+            add(previous, -1);
+            add(state, 1);
+        }
+    }
+
+    @EventListener
+    public void on(TeamChangedEvent event) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+        if (event.type() == EntityChangeType.CREATED) {
+            pending().created.add(event.teamId());
+        } else if (event.type() == EntityChangeType.DELETED) {
+            pending().deleted.add(event.teamId());
+        }
+    }
+
+    /**
+     * 벌크 수정은 이미 실행된 뒤이므로 수정된 회원은 age > minAge 인 회원이다.
+     */
+    @EventListener
+    public void on(MemberAgeBulkIncreasedEvent event) {
+        if (event.updatedCount() == 0 || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return;
+        }
+        Map<Long, TeamSummaryDelta> deltas = pending().deltas;
+        jdbcTemplate.query(BULK_SQL, rs -> {
+            TeamSummaryDelta delta = deltas.computeIfAbsent(rs.getLong(1), id -> new TeamSummaryDelta());
+            long updated = rs.getLong(2);
+            delta.ageSum += updated;
+            for (int i = 1; i < TeamSummaryDelta.BUCKETS; i++) {
+                long crossed = rs.getLong(i + 2);
+                delta.buckets[i - 1] -= crossed;
+                delta.buckets[i] += crossed;
+            }
+        }, event.minAge());
+    }
+
+    private void add(MemberState state, int sign) {
+        if (state == null || state.teamId() == null) {
+            return;
+        }
+        pending().deltas.computeIfAbsent(state.teamId(), id -> new TeamSummaryDelta()).add(state.age(), sign);
+    }
+
+    private Pending pending() {
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Pending created = new Pending();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TeamSummaryUpdater.this);
+                }
+            });
+            em.unwrap(SessionImplementor.class).getActionQueue()
+                    .registerProcess(session -> apply(created));
+            pending = created;
+        }
+        return pending;
+    }
+
+    private void apply(Pending pending) {
+        for (Long teamId : pending.created) {
+            jdbcTemplate.update(INSERT_SQL, 0, 0, 0, 0, 0, 0, 0, teamId);
+        }
+        pending.deltas.forEach((teamId, delta) -> {
+            if (delta.isEmpty() || pending.deleted.contains(teamId)) {
+                return;
+            }
+            Object[] args = {delta.memberCount, delta.ageSum, delta.buckets[0], delta.buckets[1],
+                    delta.buckets[2], delta.buckets[3], delta.buckets[4], teamId};
+            if (jdbcTemplate.update(UPDATE_SQL, args) == 0) {
+                log.warn("No team summary for team {}, leaving it to the summary check", teamId);
+            }
+        });
+        for (Long teamId : pending.deleted) {
+            jdbcTemplate.update("delete from team_summary where team_id = ?", teamId);
+        }
+        pending.created.clear();
+        pending.deltas.clear();
+        pending.deleted.clear();
+    }
+
+    private static class Pending {
+        final Set<Long> created = new LinkedHashSet<>();
+        final Map<Long, TeamSummaryDelta> deltas = new LinkedHashMap<>();
+        final Set<Long> deleted = new LinkedHashSet<>();
+    }
+}
@@ -0,0 +1,18 @@
+package study.datajpa.writebehind;
+
+import java.time.LocalDateTime;
+
+/**
+ * 아직 DB에 반영되지 않은 회원 수정. age, teamId가 null이면 바꾸지 않는다.
+ * 같은 회원의 수정은 merge로 합쳐 마지막 값만 남긴다.
+ */
+record MemberUpdate(long memberId, Integer age, Long teamId, String auditor, LocalDateTime modifiedDate) {
+
+    MemberUpdate merge(MemberUpdate newer) {
+        return new MemberUpdate(memberId,
+                newer.age != null ? newer.age : age,
+                newer.teamId != null ? newer.teamId : teamId,
+                newer.auditor,
+                newer.modifiedDate);
+    }
+}
@@ -0,0 +1,161 @@
+package study.datajpa.writebehind;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 버퍼에 넣기 전의 수정을 한 줄씩 덧붙이는 로컬 저널.
+ * 줄마다 CRC32를 앞에 붙여 쓰다 끊긴 마지막 줄은 재생할 때 버린다.
+ * <p>
+ * flush를 시작할 때 새 세그먼트로 넘어가고, 반영이 커밋되면 닫힌 세그먼트를 지운다.
+ * 기동 시 남아있는 세그먼트는 반영되지 못한 수정이므로 순서대로 재생한다.
+ * 재생한 수정이 그 사이 다른 경로로 바뀐 값을 되돌리지 않도록, 반영할 때 행을 잠그고
+ * DB의 수정일자가 저널의 수정일자보다 나중이면 건너뛴다. 합쳐진 수정은 마지막 수정일자로 비교한다.
+ */
+@Slf4j
+class MemberUpdateJournal implements Closeable {
+
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final boolean fsync;
+    private final List<Path> closed = new ArrayList<>();
+    private long sequence;
+    private Path currentPath;
+    private FileChannel current;
+
+    MemberUpdateJournal(Path directory, boolean fsync) throws IOException {
+        this.directory = directory;
+        this.fsync = fsync;
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(MemberUpdateJournal::isSegment)
+                    .sorted((left, right) -> Long.compare(sequenceOf(left), sequenceOf(right)))
+                    .forEach(closed::add);
+        }
+        sequence = closed.isEmpty() ? 0 : sequenceOf(closed.get(closed.size() - 1));
+        open();
+    }
+
+    /**
+     * 닫힌 세그먼트, 즉 이전 실행에서 반영되지 못한 수정을 쓴 순서대로 읽는다.
+     */
+    synchronized List<MemberUpdate> replay() throws IOException {
+        List<MemberUpdate> updates = new ArrayList<>();
+        for (Path segment : closed) {
+            try (BufferedReader reader = Files.newBufferedReader(segment, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    MemberUpdate update = decode(line);
+                    if (update == null) {
+                        log.warn("Ignore torn or corrupt journal entry in {}", segment.getFileName());
+                        break;
+                    }
+                    updates.add(update);
+                }
+            }
+        }
+        return updates;
+    }
+
+    synchronized void append(MemberUpdate update) throws IOException {
+        ByteBuffer line = ByteBuffer.wrap(encode(update).getBytes(StandardCharsets.UTF_8));
+        while (line.hasRemaining()) {
+            current.write(line);
+        }
+        if (fsync) {
+            current.force(false);
+        }
+    }
+
+    /**
+     * 지금까지 쓴 세그먼트를 닫고 새 세그먼트로 넘어간다.
+     */
+    synchronized void rotate() throws IOException {
+        current.close();
+        closed.add(currentPath);
+        open();
+    }
+
+    /**
+     * 닫힌 세그먼트의 수정이 모두 DB에 반영된 뒤에 호출한다.
+     */
+    synchronized void deleteClosed() throws IOException {
+        for (Path segment : closed) {
+            Files.deleteIfExists(segment);
+        }
+        closed.clear();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        current.close();
+    }
+
+    private void open() throws IOException {
+        currentPath = directory.resolve(PREFIX + (++sequence) + SUFFIX);
+        current = FileChannel.open(currentPath,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    static String encode(MemberUpdate update) {
+        String body = update.memberId()
+                + "\t" + (update.age() != null ? update.age() : "")
+                + "\t" + (update.teamId() != null ? update.teamId() : "")
+                + "\t" + (update.auditor() != null ? update.auditor() : "")
+                + "\t" + update.modifiedDate();
+        return Long.toHexString(crc(body)) + "\t" + body + "\n";
+    }
+
+    static MemberUpdate decode(String line) {
+        int separator = line.indexOf('\t');
+        if (separator < 0) {
+            return null;
+        }
+        String body = line.substring(separator + 1);
+        try {
+            if (Long.parseLong(line.substring(0, separator), 16) != crc(body)) {
+                return null;
+            }
+            String[] fields = body.split("\t", -1);
+            return new MemberUpdate(Long.parseLong(fields[0]),
+                    fields[1].isEmpty() ? null : Integer.valueOf(fields[1]),
+                    fields[2].isEmpty() ? null : Long.valueOf(fields[2]),
+                    fields[3].isEmpty() ? null : fields[3],
+                    LocalDateTime.parse(fields[4]));
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static long crc(String body) {
+        CRC32 crc = new CRC32();
+        crc.update(body.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    private static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+    }
+
+    private static long sequenceOf(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
@@ -0,0 +1,251 @@
+package study.datajpa.writebehind;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.AuditClock;
+import study.datajpa.event.EntityChangeType;
+import study.datajpa.event.MemberChangedEvent;
+import study.datajpa.event.MemberState;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 자주 바뀌는 회원의 나이, 소속 팀 수정을 메모리에 모았다가 JDBC 배치로 한 번에 반영한다.
+ * 같은 회원의 수정은 마지막 값으로 합쳐지고, 버퍼에 넣기 전에 로컬 저널에 먼저 기록해 재시작 시 복구한다.
+ * <p>
+ * 반영은 write-behind.flush-interval마다, 또는 버퍼가 write-behind.max-buffered개에 이르면 일어난다.
+ * JDBC로 반영하므로 엔티티 리스너 대신 MemberChangedEvent를 같은 트랜잭션에서 직접 발행한다.
+ * 반영 전까지 DB와 영속성 컨텍스트는 이전 값을 보인다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "write-behind", name = "enabled", havingValue = "true")
+public class MemberWriteBehind {
+
+    private static final int CHUNK = 1000;
+    // 잠근 뒤 읽은 수정일자로 이미 걸렀지만, 더 나중에 수정된 행을 덮어쓰지 않는다는 조건을 쓰기에도 건다.
+    private static final String UPDATE_SQL = "update member set age = ?, team_id = ?, last_modified_date = ?,"
+            + " last_modified_by = ? where member_id = ? and (last_modified_date is null or last_modified_date <= ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AuditorAware<String> auditorAware;
+    private final AuditClock auditClock;
+    private final MemberUpdateJournal journal;
+    private final int maxBuffered;
+
+    private final Object lock = new Object();
+    private Map<Long, MemberUpdate> buffer = new HashMap<>();
+
+    public MemberWriteBehind(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             ApplicationEventPublisher eventPublisher,
+                             AuditorAware<String> auditorAware,
+                             AuditClock auditClock,
+                             @Value("${write-behind.journal-dir:write-behind}") String journalDir,
+                             @Value("${write-behind.fsync:true}") boolean fsync,
+                             @Value("${write-behind.max-buffered:10000}") int maxBuffered) throws IOException {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // max-buffered에 걸리면 호출한 스레드에서 반영하므로 호출한 쪽 트랜잭션에 참여하지 않고 따로 커밋한다.
+        // 그래야 저널 세그먼트를 지울 때 반영이 이미 커밋되어 있다.
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.eventPublisher = eventPublisher;
+        this.auditorAware = auditorAware;
+        this.auditClock = auditClock;
+        this.journal = new MemberUpdateJournal(Path.of(journalDir), fsync);
+        this.maxBuffered = maxBuffered;
+
+        List<MemberUpdate> recovered = journal.replay();
+        recovered.forEach(update -> buffer.merge(update.memberId(), update, MemberUpdate::merge));
+        if (!recovered.isEmpty()) {
+            log.info("Recovered {} journaled member updates for {} members", recovered.size(), buffer.size());
+        }
+    }
+
+    public void updateAge(Long memberId, int age) {
+        enqueue(memberId, age, null);
+    }
+
+    public void changeTeam(Long memberId, Long teamId) {
+        enqueue(memberId, null, Objects.requireNonNull(teamId, "teamId"));
+    }
+
+    public int pending() {
+        synchronized (lock) {
+            return buffer.size();
+        }
+    }
+
+    private void enqueue(Long memberId, Integer age, Long teamId) {
+        MemberUpdate update = new MemberUpdate(memberId, age, teamId,
+                auditorAware.getCurrentAuditor().orElse(null), auditClock.now());
+        int buffered;
+        synchronized (lock) {
+            try {
+                journal.append(update);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot journal member update " + update, e);
+            }
+            buffer.merge(memberId, update, MemberUpdate::merge);
+            buffered = buffer.size();
+        }
+        if (buffered >= maxBuffered) {
+            flush();
+        }
+    }
+
+    /**
+     * 이전 실행에서 남은 수정은 DB가 준비된 뒤에 반영한다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        flush();
+    }
+
+    /**
+     * 버퍼를 비우고 모인 수정을 한 트랜잭션으로 반영한다. 실패하면 다시 버퍼에 넣어 다음 반영 때 재시도한다.
+     *
+     * @return 실제로 값이 바뀐 회원 수
+     */
+    @Scheduled(fixedDelayString = "${write-behind.flush-interval:1000}")
+    public synchronized int flush() {
+        Map<Long, MemberUpdate> batch;
+        synchronized (lock) {
+            if (buffer.isEmpty()) {
+                return 0;
+            }
+            batch = buffer;
+            buffer = new HashMap<>();
+            try {
+                journal.rotate();
+            } catch (IOException e) {
+                buffer = batch;
+                throw new UncheckedIOException("Cannot rotate member update journal", e);
+            }
+        }
+
+        try {
+            Integer applied = transactionTemplate.execute(status -> apply(batch.values()));
+            journal.deleteClosed();
+            return applied != null ? applied : 0;
+        } catch (RuntimeException | IOException e) {
+            synchronized (lock) {
+                batch.forEach((memberId, update) -> buffer.merge(memberId, update, (newer, older) -> older.merge(newer)));
+            }
+            log.warn("Failed to flush {} member updates, will retry", batch.size(), e);
+            return 0;
+        }
+    }
+
+    private int apply(Collection<MemberUpdate> updates) {
+        Map<Long, MemberState> previous = new HashMap<>();
+        Map<Long, LocalDateTime> lastModified = new HashMap<>();
+        Set<Long> teamIds = new HashSet<>();
+        List<Long> memberIds = new ArrayList<>(updates.size());
+        for (MemberUpdate update : updates) {
+            memberIds.add(update.memberId());
+            if (update.teamId() != null) {
+                teamIds.add(update.teamId());
+            }
+        }
+        // 읽은 값과 수정일자가 반영할 때까지 바뀌지 않도록 대상 행을 잠근다.
+        inChunks(memberIds, chunk -> jdbcTemplate.query(
+                "select member_id, username, age, team_id, last_modified_date from member"
+                        + " where deleted_at is null and member_id in (" + placeholders(chunk) + ") for update",
+                rs -> {
+                    MemberState state = new MemberState(rs.getString(2), rs.getInt(3), rs.getObject(4, Long.class));
+                    previous.put(rs.getLong(1), state);
+                    LocalDateTime modified = rs.getObject(5, LocalDateTime.class);
+                    if (modified != null) {
+                        lastModified.put(rs.getLong(1), modified);
+                    }
+                }, chunk.toArray()));
+        Set<Long> existingTeams = new HashSet<>();
+        inChunks(new ArrayList<>(teamIds), chunk -> existingTeams.addAll(jdbcTemplate.queryForList(
+                "select team_id from team where deleted_at is null and team_id in (" + placeholders(chunk) + ")", Long.class, chunk.toArray())));
+
+        List<Object[]> rows = new ArrayList<>();
+        List<MemberChangedEvent> events = new ArrayList<>();
+        for (MemberUpdate update : updates) {
+            MemberState before = previous.get(update.memberId());
+            if (before == null) {
+                log.debug("Skip update of deleted member {}", update.memberId());
+                continue;
+            }
+            LocalDateTime modified = lastModified.get(update.memberId());
+            if (modified != null && modified.isAfter(update.modifiedDate())) {
+                log.debug("Skip update of member {} modified at {} after {}", update.memberId(), modified,
+                        update.modifiedDate());
+                continue;
+            }
+            if (update.teamId() != null && !existingTeams.contains(update.teamId())) {
+                log.warn("Skip update of member {} to missing team {}", update.memberId(), update.teamId());
+                continue;
+            }
+            MemberState after = new MemberState(before.username(),
+                    update.age() != null ? update.age() : before.age(),
+                    update.teamId() != null ? update.teamId() : before.teamId());
+            if (after.equals(before)) {
+                continue;
+            }
+            Timestamp modifiedDate = Timestamp.valueOf(update.modifiedDate());
+            rows.add(new Object[]{after.age(), after.teamId(), modifiedDate, update.auditor(), update.memberId(),
+                    modifiedDate});
+            events.add(new MemberChangedEvent(EntityChangeType.UPDATED, update.memberId(), after, before));
+        }
+
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_SQL, rows);
+        int applied = 0;
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] != 0) {
+                eventPublisher.publishEvent(events.get(i));
+                applied++;
+            }
+        }
+        return applied;
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        flush();
+        journal.close();
+    }
+
+    private static void inChunks(List<Long> ids, Consumer<List<Long>> action) {
+        for (int from = 0; from < ids.size(); from += CHUNK) {
+            action.accept(ids.subList(from, Math.min(from + CHUNK, ids.size())));
+        }
+    }
+
+    private static String placeholders(List<Long> ids) {
+        return String.join(", ", Collections.nCopies(ids.size(), "?"));
+    }
+}
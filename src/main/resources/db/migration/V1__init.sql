@@ -0,0 +1,31 @@
+create table team (
+    team_id bigint generated by default as identity,
+    name varchar(255),
+    primary key (team_id)
+);
+
+create table member (
+    member_id bigint generated by default as identity,
+    username varchar(255),
+    age integer not null,
+    team_id bigint,
+    created_date timestamp(6),
+    last_modified_date timestamp(6),
+    primary key (member_id)
+);
+
+create table item (
+    id varchar(255) not null,
+    created_date timestamp(6),
+    primary key (id)
+);
+
+create index idx_member_username_age on member (username, age);
+create index idx_member_age_username on member (age, username);
+create index idx_member_team_id on member (team_id);
+create index idx_team_name on team (name);
+
+alter table member
+    add constraint fk_member_team
+    foreign key (team_id)
+    references team;
@@ -0,0 +1,2 @@
+alter table member add column created_by varchar(255);
+alter table member add column last_modified_by varchar(255);
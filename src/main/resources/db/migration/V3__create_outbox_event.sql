@@ -0,0 +1,12 @@
+create table outbox_event (
+    id bigint generated by default as identity,
+    aggregate_type varchar(50),
+    aggregate_id bigint,
+    event_type varchar(30),
+    payload varchar(4000),
+    created_date timestamp(6),
+    published_date timestamp(6),
+    primary key (id)
+);
+
+create index idx_outbox_event_published_date on outbox_event (published_date, id);
@@ -0,0 +1,21 @@
+create table team_summary (
+    team_id bigint not null,
+    member_count bigint default 0 not null,
+    age_sum bigint default 0 not null,
+    age_under20 bigint default 0 not null,
+    age20s bigint default 0 not null,
+    age30s bigint default 0 not null,
+    age40s bigint default 0 not null,
+    age50plus bigint default 0 not null,
+    primary key (team_id)
+);
+
+insert into team_summary (team_id, member_count, age_sum, age_under20, age20s, age30s, age40s, age50plus)
+select t.team_id, count(m.member_id), coalesce(sum(m.age), 0),
+       coalesce(sum(case when m.age < 20 then 1 else 0 end), 0),
+       coalesce(sum(case when m.age >= 20 and m.age < 30 then 1 else 0 end), 0),
+       coalesce(sum(case when m.age >= 30 and m.age < 40 then 1 else 0 end), 0),
+       coalesce(sum(case when m.age >= 40 and m.age < 50 then 1 else 0 end), 0),
+       coalesce(sum(case when m.age >= 50 then 1 else 0 end), 0)
+from team t left join member m on m.team_id = t.team_id
+group by t.team_id;
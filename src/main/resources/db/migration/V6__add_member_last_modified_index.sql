@@ -0,0 +1 @@
+create index idx_member_last_modified_date on member (last_modified_date);
@@ -0,0 +1,8 @@
+alter table member add column deleted_at timestamp(6);
+alter table team add column deleted_at timestamp(6);
+
+-- 조회는 항상 deleted_at is null 조건이 붙는다. 부분 인덱스를 지원하는 DB라면 기존 인덱스를
+-- "where deleted_at is null"로 다시 만들고 아래 인덱스는 "where deleted_at is not null"로 만든다.
+-- H2는 부분 인덱스가 없으므로 퍼지 대상 조회용 인덱스만 둔다.
+create index idx_member_deleted_at on member (deleted_at);
+create index idx_team_deleted_at on team (deleted_at);
@@ -0,0 +1,61 @@
+package study.datajpa;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 리포지토리 기동 방식별로 컨텍스트 시작부터 첫 요청 응답까지 걸리는 시간을 측정한다.
+ * ./gradlew benchmark 로 실행한다.
+ */
+@Tag("benchmark")
+class StartupBenchmarkTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    @DisplayName("기동 방식별 첫 요청까지의 시간을 측정한다.")
+    void timeToFirstRequest() throws Exception {
+        Map<String, String[]> modes = new LinkedHashMap<>();
+        modes.put("default", new String[]{"--spring.data.jpa.repositories.bootstrap-mode=default"});
+        modes.put("deferred", new String[]{"--spring.data.jpa.repositories.bootstrap-mode=deferred"});
+        modes.put("lazy", new String[]{"--spring.profiles.active=lazy"});
+
+        // 클래스 로딩 비용이 첫 측정에만 몰리지 않도록 한 번 먼저 띄운다.
+        measure("warmup", modes.get("default"));
+
+        for (Map.Entry<String, String[]> mode : modes.entrySet()) {
+            long[] result = measure(mode.getKey(), mode.getValue());
+            System.out.printf("mode=%-8s started=%5dms firstRequest=%5dms%n", mode.getKey(), result[0], result[1]);
+        }
+    }
+
+    private long[] measure(String name, String[] args) throws Exception {
+        long start = System.nanoTime();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DataJpaApplication.class)
+                .properties("server.port=0", "spring.datasource.url=jdbc:h2:mem:startup-" + name)
+                .run(args)) {
+            long started = System.nanoTime();
+            String port = context.getEnvironment().getProperty("local.server.port");
+
+            HttpResponse<String> response = client.send(
+                    HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/members?size=1")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            long firstRequest = System.nanoTime();
+
+            assertThat(response.statusCode()).isEqualTo(200);
+            return new long[]{(started - start) / 1_000_000, (firstRequest - start) / 1_000_000};
+        }
+    }
+}
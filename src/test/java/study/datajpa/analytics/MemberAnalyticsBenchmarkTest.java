@@ -0,0 +1,86 @@
+package study.datajpa.analytics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+/**
+ * 회원 50만 명, 팀 100개 기준으로 팀별 집계와 나이대 분포를 H2 SQL과 열 저장소에서 각각 계산해 비교한다.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:member-analytics-benchmark;DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=FALSE",
+        "analytics.enabled=true",
+        "scheduling.enabled=false",
+        "decorator.datasource.p6spy.enable-logging=false",
+        "logging.level.org.hibernate.SQL=info"
+})
+class MemberAnalyticsBenchmarkTest {
+
+    private static final int MEMBERS = 500_000;
+    private static final int TEAMS = 100;
+    private static final int ROUNDS = 20;
+
+    @Autowired MemberAnalytics memberAnalytics;
+    @Autowired TeamRepository teamRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("팀별 집계와 나이대 분포의 H2 SQL과 열 저장소 처리 시간을 비교한다.")
+    void aggregates() {
+        // given
+        List<Object[]> teams = new ArrayList<>();
+        for (int i = 0; i < TEAMS; i++) {
+            teams.add(new Object[]{"team" + i, 0});
+        }
+        jdbcTemplate.batchUpdate("insert into team (name, member_count) values (?, ?)", teams);
+        long[] teamIds = jdbcTemplate.queryForList("select team_id from team", Long.class).stream()
+                .mapToLong(Long::longValue).toArray();
+        SplittableRandom random = new SplittableRandom(42);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < MEMBERS; i++) {
+            rows.add(new Object[]{"member" + i, random.nextInt(15, 75), teamIds[random.nextInt(teamIds.length)]});
+        }
+        jdbcTemplate.batchUpdate("insert into member (username, age, team_id) values (?, ?, ?)", rows);
+        long start = System.nanoTime();
+        memberAnalytics.rebuild();
+        long rebuild = (System.nanoTime() - start) / 1_000_000;
+
+        // when
+        long sqlTeamStats = time(teamRepository::findTeamStats);
+        long columnTeamStats = time(memberAnalytics::teamStats);
+        long sqlHistogram = time(() -> jdbcTemplate.queryForList(
+                "select age / 10, count(*) from member group by age / 10"));
+        long columnHistogram = time(() -> memberAnalytics.ageHistogram(10, null));
+        long sqlTeamHistogram = time(() -> jdbcTemplate.queryForList(
+                "select age / 10, count(*) from member where team_id = ? group by age / 10", teamIds[0]));
+        long columnTeamHistogram = time(() -> memberAnalytics.ageHistogram(10, teamIds[0]));
+
+        // then
+        System.out.printf("rebuild       members=%d time=%dms%n", memberAnalytics.size(), rebuild);
+        System.out.printf("team stats    sql=%.1fms columns=%.2fms%n", sqlTeamStats / 1e6, columnTeamStats / 1e6);
+        System.out.printf("histogram     sql=%.1fms columns=%.2fms%n", sqlHistogram / 1e6, columnHistogram / 1e6);
+        System.out.printf("team histogram sql=%.1fms columns=%.2fms%n", sqlTeamHistogram / 1e6, columnTeamHistogram / 1e6);
+    }
+
+    // 워밍업 뒤 ROUNDS번의 평균(ns)
+    private static long time(Supplier<?> query) {
+        for (int i = 0; i < ROUNDS; i++) {
+            query.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            query.get();
+        }
+        return (System.nanoTime() - start) / ROUNDS;
+    }
+}
@@ -0,0 +1,109 @@
+package study.datajpa.analytics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:member-analytics;DB_CLOSE_DELAY=-1",
+        "analytics.enabled=true",
+        "analytics.parallel-threshold=1024",
+        "scheduling.enabled=false"
+})
+class MemberAnalyticsTest {
+
+    @Autowired MemberAnalytics memberAnalytics;
+    @Autowired MemberRepository memberRepository;
+    @Autowired TeamRepository teamRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("저장, 수정, 삭제, 벌크 수정이 커밋 후에 반영되고 롤백된 변경은 반영되지 않는다.")
+    void incrementalUpdates() {
+        // given
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Long[] ids = tx.execute(status -> {
+            Team teamA = teamRepository.save(new Team("analyticsA"));
+            Team teamB = teamRepository.save(new Team("analyticsB"));
+            Member member1 = memberRepository.save(new Member("analytics1", 19, teamA));
+            Member member2 = memberRepository.save(new Member("analytics2", 25, teamA));
+            Member member3 = memberRepository.save(new Member("analytics3", 40, null));
+            return new Long[]{teamA.getId(), teamB.getId(), member1.getId(), member2.getId(), member3.getId()};
+        });
+
+        // when
+        tx.executeWithoutResult(status -> {
+            memberRepository.findById(ids[3]).get().changeTeam(teamRepository.findById(ids[1]).get());
+            memberRepository.deleteById(ids[4]);
+        });
+        tx.executeWithoutResult(status -> {
+            memberRepository.save(new Member("analytics1", 70, null));
+            status.setRollbackOnly();
+        });
+        memberRepository.bulkAgePlus(20);
+
+        // then
+        assertThat(memberAnalytics.teamStats()).isEqualTo(teamRepository.findTeamStats());
+        assertThat(memberAnalytics.countByUsername("analytics1")).isEqualTo(1);
+        assertThat(memberAnalytics.countByUsername("analytics3")).isZero();
+        assertThat(memberAnalytics.ageHistogram(10, ids[0])).filteredOn(bucket -> bucket.count() > 0)
+                .containsExactly(new AgeBucket(10, 19, 1));
+        assertThat(memberAnalytics.ageHistogram(10, ids[1])).filteredOn(bucket -> bucket.count() > 0)
+                .containsExactly(new AgeBucket(20, 29, 1));
+        assertThat(memberAnalytics.count(20, 29)).isEqualTo(countSql(20, 29));
+    }
+
+    @Test
+    @DisplayName("병렬로 나눠 훑은 집계가 SQL 집계와 같다.")
+    void parallelScanMatchesSql() {
+        // given
+        List<Long> teamIds = new TransactionTemplate(transactionManager).execute(status -> {
+            List<Long> created = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                created.add(teamRepository.save(new Team("parallel" + i)).getId());
+            }
+            return created;
+        });
+        SplittableRandom random = new SplittableRandom(11);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            Long teamId = random.nextInt(6) == 0 ? null : teamIds.get(random.nextInt(teamIds.size()));
+            rows.add(new Object[]{"parallel" + random.nextInt(100), random.nextInt(0, 80), teamId});
+        }
+        jdbcTemplate.batchUpdate("insert into member (username, age, team_id) values (?, ?, ?)", rows);
+
+        // when
+        memberAnalytics.rebuild();
+
+        // then
+        assertThat(memberAnalytics.size()).isEqualTo(countSql(Integer.MIN_VALUE, Integer.MAX_VALUE));
+        assertThat(memberAnalytics.teamStats()).isEqualTo(teamRepository.findTeamStats());
+        assertThat(memberAnalytics.count(30, 49)).isEqualTo(countSql(30, 49));
+        assertThat(memberAnalytics.countByUsername("parallel7")).isEqualTo(
+                jdbcTemplate.queryForObject("select count(*) from member where username = 'parallel7'", Long.class));
+        List<AgeBucket> histogram = memberAnalytics.ageHistogram(10, null);
+        for (AgeBucket bucket : histogram) {
+            assertThat(bucket.count()).isEqualTo(countSql(bucket.fromAge(), bucket.toAge()));
+        }
+    }
+
+    private long countSql(int minAge, int maxAge) {
+        return jdbcTemplate.queryForObject("select count(*) from member where age between ? and ?",
+                Long.class, minAge, maxAge);
+    }
+}
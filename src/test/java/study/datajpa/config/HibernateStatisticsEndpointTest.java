@@ -0,0 +1,45 @@
+package study.datajpa.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import study.datajpa.repository.MemberRepository;
+
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class HibernateStatisticsEndpointTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Test
+    @DisplayName("Hibernate 통계를 엔티티, 쿼리별로 노출하고 초기화할 수 있다.")
+    void statistics() throws Exception {
+        // given
+        mockMvc.perform(delete("/actuator/hibernate"))
+                .andExpect(status().isNoContent());
+        memberRepository.findMemberFetchJoin();
+
+        // when, then
+        mockMvc.perform(get("/actuator/hibernate"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.enabled").value(true))
+                .andExpect(jsonPath("$.statements").value(greaterThanOrEqualTo(1)))
+                .andExpect(jsonPath("$.entity['study.datajpa.entity.Member']").exists())
+                .andExpect(jsonPath("$.collection['study.datajpa.entity.Team.members']").exists())
+                .andExpect(jsonPath("$.query['select m from Member m left join fetch m.team t'].executions")
+                        .value(greaterThanOrEqualTo(1)));
+    }
+}
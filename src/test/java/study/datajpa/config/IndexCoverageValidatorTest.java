@@ -0,0 +1,27 @@
+package study.datajpa.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class IndexCoverageValidatorTest {
+
+    @Autowired
+    IndexCoverageValidator indexCoverageValidator;
+
+    @Test
+    @DisplayName("메소드 이름으로 생성되는 쿼리는 모두 인덱스를 사용할 수 있다.")
+    void derivedQueriesAreCovered() {
+        // when
+        List<String> uncovered = indexCoverageValidator.validate();
+
+        // then
+        assertThat(uncovered).isEmpty();
+    }
+}
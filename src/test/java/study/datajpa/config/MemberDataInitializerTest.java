@@ -0,0 +1,59 @@
+package study.datajpa.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import study.datajpa.dto.TeamStatsDto;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+import study.datajpa.summary.TeamSummaryChecker;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:seed;DB_CLOSE_DELAY=-1",
+        "seed.enabled=true",
+        "seed.members=2500",
+        "seed.teams=50",
+        "seed.batch-size=1000"
+})
+class MemberDataInitializerTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    TeamRepository teamRepository;
+
+    @Autowired
+    TeamSummaryChecker teamSummaryChecker;
+
+    @Test
+    @DisplayName("기동 시 샘플 회원 데이터를 배치로 적재한다.")
+    void seed() {
+        // then
+        assertThat(memberRepository.count()).isEqualTo(2500);
+        assertThat(memberRepository.findByUsername("user2499")).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("회원은 일부 팀에 몰리도록 배정되고 팀 회원 수와 집계도 함께 맞춰진다.")
+    void skewedTeams() {
+        // when
+        List<TeamStatsDto> stats = teamRepository.findTeamStats();
+        List<Team> teams = teamRepository.findAll();
+
+        // then
+        assertThat(stats).hasSize(50);
+        long assigned = stats.stream().mapToLong(TeamStatsDto::memberCount).sum();
+        assertThat(assigned).isBetween(2000L, 2400L);
+        assertThat(stats.get(0).memberCount()).isGreaterThan(stats.get(49).memberCount() * 5);
+        assertThat(teams).allSatisfy(team -> assertThat(team.getMemberCount())
+                .isEqualTo(teamRepository.countMembers(team.getId())));
+        assertThat(teamSummaryChecker.repair()).isEmpty();
+    }
+}
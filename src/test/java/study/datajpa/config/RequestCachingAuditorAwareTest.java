@@ -0,0 +1,50 @@
+package study.datajpa.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestCachingAuditorAwareTest {
+
+    RequestCachingAuditorAware auditorAware = new RequestCachingAuditorAware();
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("같은 요청에서는 같은 감사자를 반환한다.")
+    void sameAuditorInRequest() {
+        // given
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+        // when
+        String first = auditorAware.getCurrentAuditor().get();
+        String second = auditorAware.getCurrentAuditor().get();
+
+        // then
+        assertThat(first).isEqualTo(second);
+        assertThat(UUID.fromString(first).version()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("요청이 다르면 다른 감사자를 반환한다.")
+    void differentAuditorPerRequest() {
+        // when
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        String first = auditorAware.getCurrentAuditor().get();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        String second = auditorAware.getCurrentAuditor().get();
+
+        // then
+        assertThat(first).isNotEqualTo(second);
+    }
+}
@@ -0,0 +1,130 @@
+package study.datajpa.controller;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class MemberControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    EntityManager em;
+
+    @Test
+    @DisplayName("회원 목록은 content와 page 정보만 담은 JSON으로 내려간다.")
+    void list() throws Exception {
+        // given
+        Team team = new Team("teamA");
+        em.persist(team);
+        for (int i = 1; i <= 3; i++) {
+            em.persist(new Member("member" + i, 10 * i, i == 3 ? null : team));
+        }
+        em.flush();
+        em.clear();
+
+        // when, then
+        mockMvc.perform(get("/members").param("size", "2").param("sort", "age,desc").param("total", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].username").value("member3"))
+                .andExpect(jsonPath("$.content[0].teamName").value(nullValue()))
+                .andExpect(jsonPath("$.content[1].teamName").value("teamA"))
+                .andExpect(jsonPath("$.page.hasNext").value(true))
+                .andExpect(jsonPath("$.page.totalElements").value(3));
+
+        mockMvc.perform(get("/members").param("page", "1").param("size", "2").param("sort", "age,desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].username").value("member1"))
+                .andExpect(jsonPath("$.page.offset").value(2))
+                .andExpect(jsonPath("$.page.hasNext").value(false))
+                .andExpect(jsonPath("$.page.totalElements").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("정렬할 수 없는 속성으로 요청하면 400을 돌려준다.")
+    void invalidSort() throws Exception {
+        mockMvc.perform(get("/members").param("sort", "team.name"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("회원이 바뀌지 않았으면 ETag, Last-Modified 조건부 요청에 304를 돌려준다.")
+    void conditionalGet() throws Exception {
+        // given
+        Member member = new Member("member1", 10, null);
+        em.persist(member);
+        em.flush();
+
+        String etag = mockMvc.perform(get("/members/{id}", member.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // when, then
+        mockMvc.perform(get("/members/{id}", member.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/members2/{id}", member.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        member.setUsername("member2");
+        em.flush();
+
+        mockMvc.perform(get("/members/{id}", member.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andExpect(content().string("member2"));
+    }
+
+    @Test
+    @DisplayName("여러 회원을 id로 한 번에 조회하고 없는 id는 따로 알려준다.")
+    void batch() throws Exception {
+        // given
+        Team team = new Team("teamA");
+        em.persist(team);
+        Member member1 = new Member("member1", 10, team);
+        Member member2 = new Member("member2", 20, null);
+        em.persist(member1);
+        em.persist(member2);
+        em.flush();
+        em.clear();
+        long missingId = member2.getId() + 100;
+
+        // when, then
+        mockMvc.perform(post("/members/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[%d,%d,%d,%d]}".formatted(member2.getId(), member1.getId(), member2.getId(), missingId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.members.length()").value(2))
+                .andExpect(jsonPath("$.members[0].username").value("member2"))
+                .andExpect(jsonPath("$.members[1].teamName").value("teamA"))
+                .andExpect(jsonPath("$.missing[0]").value(missingId));
+
+        mockMvc.perform(get("/members/{id}", missingId))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,91 @@
+package study.datajpa.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.repository.MemberRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * max-page-size(2000) 페이지를 Page&lt;MemberDto&gt; 직렬화와 MemberPageWriter로 각각 만들어 시간과 할당량을 비교한다.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:page-benchmark;DB_CLOSE_DELAY=-1")
+class MemberPageWriterBenchmarkTest {
+
+    private static final int PAGE_SIZE = 2000;
+    private static final int ROUNDS = 50;
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired MemberPageWriter memberPageWriter;
+    @Autowired ObjectMapper objectMapper;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("2000건 페이지 직렬화 시간과 할당량을 비교한다.")
+    void pageSerialization() throws Exception {
+        // given
+        jdbcTemplate.update("insert into team (name, member_count) values ('teamA', 0)");
+        Long teamId = jdbcTemplate.queryForObject("select max(team_id) from team", Long.class);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE * 2; i++) {
+            rows.add(new Object[]{"member" + i, i % 100, i % 2 == 0 ? teamId : null});
+        }
+        jdbcTemplate.batchUpdate("insert into member (username, age, team_id) values (?, ?, ?)", rows);
+        Pageable pageable = PageRequest.of(0, PAGE_SIZE);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+
+        // when, then
+        measure("Page<MemberDto>", () -> tx.execute(status -> {
+            try {
+                return objectMapper.writeValueAsBytes(memberRepository.findAll(pageable).map(MemberDto::new)).length;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }));
+        measure("MemberPageWriter", () -> {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(256 * 1024);
+            memberPageWriter.write(pageable, true, out);
+            return out.size();
+        });
+    }
+
+    private void measure(String name, Body body) throws Exception {
+        for (int i = 0; i < ROUNDS / 2; i++) {
+            body.write();
+        }
+        long bytes = allocatedBytes();
+        long start = System.nanoTime();
+        long size = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            size += body.write();
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%-16s page=%d time=%.2fms allocated=%dKB body=%dB%n", name, PAGE_SIZE,
+                elapsed / ROUNDS / 1_000_000.0, (allocatedBytes() - bytes) / ROUNDS / 1024, size / ROUNDS);
+    }
+
+    private long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getCurrentThreadAllocatedBytes();
+    }
+
+    private interface Body {
+        int write() throws Exception;
+    }
+}
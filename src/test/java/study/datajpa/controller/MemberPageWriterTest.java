@@ -0,0 +1,86 @@
+package study.datajpa.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@Transactional
+class MemberPageWriterTest {
+
+    @Autowired MemberPageWriter memberPageWriter;
+    @Autowired ObjectMapper objectMapper;
+    @Autowired EntityManager em;
+
+    @Test
+    @DisplayName("쓰는 도중 실패하면 JSON을 닫지 않아 잘린 응답이 올바른 JSON으로 보이지 않는다.")
+    void failureMidStream() {
+        // given
+        Iterator<Tuple> rows = failingAfter(500);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when
+        assertThatThrownBy(() -> memberPageWriter.write(PageRequest.of(0, 1000), false, rows, out))
+                .isInstanceOf(IllegalStateException.class);
+
+        // then
+        assertThat(out.size()).isPositive();
+        assertThatThrownBy(() -> objectMapper.readTree(out.toByteArray()))
+                .isInstanceOf(JsonProcessingException.class);
+    }
+
+    @Test
+    @DisplayName("첫 행을 읽다 실패하면 아무것도 쓰지 않는다.")
+    void failureBeforeFirstRow() {
+        // given
+        Iterator<Tuple> rows = failingAfter(0);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when
+        assertThatThrownBy(() -> memberPageWriter.write(PageRequest.of(0, 10), false, rows, out))
+                .isInstanceOf(IllegalStateException.class);
+
+        // then
+        assertThat(out.size()).isZero();
+    }
+
+    // 실제 조회 결과 행을 돌려 쓰다가 count건 뒤에 실패하는 커서
+    private Iterator<Tuple> failingAfter(int count) {
+        em.persist(new Member("member1", 10, null));
+        em.flush();
+        List<Tuple> tuples = em.createQuery(
+                "select m.id as id, m.username as username, null as teamName from Member m", Tuple.class)
+                .getResultList();
+        return new Iterator<>() {
+            int read;
+
+            @Override
+            public boolean hasNext() {
+                if (read >= count) {
+                    throw new IllegalStateException("connection lost");
+                }
+                return true;
+            }
+
+            @Override
+            public Tuple next() {
+                return tuples.get(read++ % tuples.size());
+            }
+        };
+    }
+}
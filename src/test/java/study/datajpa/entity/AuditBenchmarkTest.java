@@ -0,0 +1,76 @@
+package study.datajpa.entity;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * 감사 컬럼이 있는 Member를 배치로 저장할 때의 비용을 측정한다.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@Transactional
+class AuditBenchmarkTest {
+
+    private static final int MEMBERS = 20_000;
+    private static final int BATCH_SIZE = 1_000;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Autowired
+    AuditorAware<String> auditorAware;
+
+    @Test
+    @DisplayName("감사자 생성 비용을 비교한다.")
+    void auditorGeneration() {
+        int iterations = 1_000_000;
+        // 결과를 사용하지 않으면 JIT가 호출을 지울 수 있으므로 해시를 누적한다.
+        int sink = 0;
+        for (int round = 0; round < 2; round++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += UUID.randomUUID().toString().hashCode();
+            }
+            long secureRandom = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                sink += auditorAware.getCurrentAuditor().get().hashCode();
+            }
+            long threadLocalRandom = System.nanoTime() - start;
+
+            System.out.printf("UUID.randomUUID=%dns/op auditorProvider=%dns/op (%d)%n",
+                    secureRandom / iterations, threadLocalRandom / iterations, sink);
+        }
+    }
+
+    @Test
+    @DisplayName("감사 컬럼이 있는 Member를 배치로 저장한다.")
+    void batchInsert() {
+        Team team = new Team("teamA");
+        em.persist(team);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEMBERS; i++) {
+            em.persist(new Member("member" + i, i % 100, team));
+            if ((i + 1) % BATCH_SIZE == 0) {
+                em.flush();
+                em.clear();
+                team = em.getReference(Team.class, team.getId());
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.printf("inserted=%d elapsed=%dms (%.1fus/row)%n",
+                MEMBERS, elapsed / 1_000_000, elapsed / 1_000.0 / MEMBERS);
+    }
+}
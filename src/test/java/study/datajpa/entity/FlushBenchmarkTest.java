@@ -0,0 +1,73 @@
+package study.datajpa.entity;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * 영속성 컨텍스트에 엔티티가 많을 때 flush 비용을 측정한다.
+ * 바이트코드 향상이 켜져 있으면 변경된 엔티티만 기록되어 있어 스냅샷 비교를 하지 않는다.
+ */
+@Tag("benchmark")
+@SpringBootTest
+@Transactional
+class FlushBenchmarkTest {
+
+    private static final int MEMBERS = 20_000;
+    private static final int ROUNDS = 5;
+
+    @PersistenceContext
+    EntityManager em;
+
+    @Test
+    @DisplayName("많은 엔티티가 관리 중일 때 flush 시간과 할당량을 측정한다.")
+    void flushLargePersistenceContext() {
+        // given
+        Team team = new Team("teamA");
+        em.persist(team);
+        for (int i = 0; i < MEMBERS; i++) {
+            em.persist(new Member("member" + i, i % 100, team));
+        }
+        em.flush();
+        em.clear();
+
+        List<Member> members = em.createQuery("select m from Member m", Member.class).getResultList();
+
+        // when
+        long totalNanos = 0;
+        long totalBytes = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int i = 0; i < 10; i++) {
+                Member member = members.get(i * (MEMBERS / 10));
+                member.setAge(member.getAge() + 1);
+            }
+
+            long bytes = allocatedBytes();
+            long start = System.nanoTime();
+            em.flush();
+            totalNanos += System.nanoTime() - start;
+            totalBytes += allocatedBytes() - bytes;
+        }
+
+        // then
+        System.out.printf("enhanced=%s managed=%d flush=%.2fms allocated=%dKB (avg of %d)%n",
+                SelfDirtinessTracker.class.isAssignableFrom(Member.class),
+                members.size(),
+                totalNanos / ROUNDS / 1_000_000.0,
+                totalBytes / ROUNDS / 1024,
+                ROUNDS);
+    }
+
+    private long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getCurrentThreadAllocatedBytes();
+    }
+}
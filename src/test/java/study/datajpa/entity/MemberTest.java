@@ -2,19 +2,24 @@ package study.datajpa.entity;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.test.annotation.Rollback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.annotation.Transactional;
 import study.datajpa.repository.MemberRepository;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest
 @Transactional
-@Rollback(value = false)
 class MemberTest {
 
     @PersistenceContext
@@ -23,6 +28,9 @@ class MemberTest {
     @Autowired
     MemberRepository memberRepository;
 
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
     @Test
     void testEntity() {
 
@@ -76,4 +84,108 @@ class MemberTest {
         System.out.println("findMember.getLastModifiedBy() = " + findMember.getLastModifiedBy());
 
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("팀을 변경해도 팀의 회원 컬렉션에는 한 번만 추가된다.")
+    void changeTeam() {
+        // given
+        Team teamA = new Team("teamA");
+        em.persist(teamA);
+
+        // when
+        Member member = new Member("member1", 10, teamA);
+        member.changeTeam(teamA);
+
+        // then
+        assertThat(teamA.getMembers()).containsExactly(member);
+    }
+
+    @Test
+    @DisplayName("감사 컬럼은 처음 접근할 때 지연 로딩된다.")
+    void lazyAuditColumns() {
+        // given
+        Member member = new Member("member1");
+        memberRepository.save(member);
+        em.flush();
+        em.clear();
+
+        // when
+        Member findMember = em.find(Member.class, member.getId());
+
+        // then
+        assertThat(Hibernate.isPropertyInitialized(findMember, "username")).isTrue();
+        assertThat(Hibernate.isPropertyInitialized(findMember, "createdDate")).isFalse();
+        assertThat(findMember.getCreatedDate()).isNotNull();
+        assertThat(Hibernate.isPropertyInitialized(findMember, "createdDate")).isTrue();
+    }
+
+    @Test
+    @DisplayName("변경 감지로 수정하면 수정일자가 갱신된다.")
+    void dirtyTrackingUpdatesAuditColumn() throws Exception {
+        // given
+        Member member = new Member("member1");
+        memberRepository.save(member);
+        em.flush();
+        em.clear();
+
+        Member findMember = em.find(Member.class, member.getId());
+        LocalDateTime createdDate = findMember.getCreatedDate();
+
+        // when
+        Thread.sleep(10);
+        findMember.setUsername("member2");
+        em.flush();
+        em.clear();
+
+        // then
+        Member updated = em.find(Member.class, member.getId());
+        assertThat(updated.getUsername()).isEqualTo("member2");
+        assertThat(updated.getLastModifiedDate()).isAfter(createdDate);
+    }
+
+    @Test
+    @DisplayName("감사 컬럼을 읽지 않고 수정해도 수정일자, 수정자가 갱신된다.")
+    void dirtyTrackingUpdatesUnloadedAuditColumns() throws Exception {
+        // given
+        Member member = new Member("member1");
+        memberRepository.save(member);
+        em.flush();
+        em.clear();
+        LocalDateTime createdDate = jdbcTemplate.queryForObject(
+                "select created_date from member where member_id = ?", LocalDateTime.class, member.getId());
+        jdbcTemplate.update("update member set last_modified_by = null where member_id = ?", member.getId());
+
+        // when
+        Thread.sleep(10);
+        Member findMember = em.find(Member.class, member.getId());
+        findMember.setUsername("member2");
+        assertThat(Hibernate.isPropertyInitialized(findMember, "lastModifiedDate")).isFalse();
+        em.flush();
+        em.clear();
+
+        // then
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "select username, last_modified_date, last_modified_by from member where member_id = ?", member.getId());
+        assertThat(row.get("username")).isEqualTo("member2");
+        assertThat(((Timestamp) row.get("last_modified_date")).toLocalDateTime()).isAfter(createdDate);
+        assertThat(row.get("last_modified_by")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("등록자, 수정자가 자동으로 처리 된다.")
+    void auditorColumns() {
+        // given
+        Member member = new Member("member1");
+        memberRepository.save(member);
+        em.flush();
+        em.clear();
+
+        // when
+        Member findMember = em.find(Member.class, member.getId());
+
+        // then
+        assertThat(findMember.getCreatedBy()).isNotNull();
+        assertThat(findMember.getLastModifiedBy()).isEqualTo(findMember.getCreatedBy());
+        assertThat(findMember.getLastModifiedDate()).isEqualTo(findMember.getCreatedDate());
+    }
+}
@@ -0,0 +1,117 @@
+package study.datajpa.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * JDK HttpClient로 동시 사용자 수만큼 닫힌 루프(응답을 받으면 바로 다음 요청)로 부하를 준다.
+ * 워커마다 지연 시간을 배열에 모았다가 끝난 뒤 합쳐 백분위를 계산한다.
+ */
+class HttpLoadDriver {
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    /**
+     * @param request 요청마다 호출되어 보낼 URI를 만든다.
+     */
+    LoadResult run(String name, int concurrency, Duration warmup, Duration duration,
+                   Function<ThreadLocalRandom, URI> request) throws Exception {
+        drive(concurrency, warmup, request);
+        long start = System.nanoTime();
+        List<Worker> workers = drive(concurrency, duration, request);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        int count = 0;
+        int errors = 0;
+        for (Worker worker : workers) {
+            count += worker.count;
+            errors += worker.errors;
+        }
+        long[] latencies = new long[count];
+        int offset = 0;
+        for (Worker worker : workers) {
+            System.arraycopy(worker.latencies, 0, latencies, offset, worker.count);
+            offset += worker.count;
+        }
+        Arrays.sort(latencies);
+        return new LoadResult(name, concurrency, count, errors, count / seconds,
+                percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+                latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1_000_000.0);
+    }
+
+    private List<Worker> drive(int concurrency, Duration duration, Function<ThreadLocalRandom, URI> request) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            long deadline = System.nanoTime() + duration.toNanos();
+            List<Future<Worker>> futures = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(executor.submit(() -> new Worker().run(deadline, request)));
+            }
+            List<Worker> workers = new ArrayList<>();
+            for (Future<Worker> future : futures) {
+                workers.add(future.get());
+            }
+            return workers;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private class Worker {
+        long[] latencies = new long[1024];
+        int count;
+        int errors;
+
+        Worker run(long deadline, Function<ThreadLocalRandom, URI> request) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            while (System.nanoTime() < deadline) {
+                HttpRequest httpRequest = HttpRequest.newBuilder(request.apply(random)).build();
+                long start = System.nanoTime();
+                try {
+                    HttpResponse<Void> response = client.send(httpRequest, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() >= 500) {
+                        errors++;
+                    }
+                } catch (Exception e) {
+                    errors++;
+                }
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = System.nanoTime() - start;
+            }
+            return this;
+        }
+    }
+
+    record LoadResult(String name, int concurrency, int requests, int errors, double throughput,
+                      double p50, double p90, double p99, double max) {
+
+        @Override
+        public String toString() {
+            return String.format("%-14s c=%3d req=%7d err=%4d rps=%8.1f p50=%7.2fms p90=%7.2fms p99=%7.2fms max=%7.2fms",
+                    name, concurrency, requests, errors, throughput, p50, p90, p99, max);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package study.datajpa.load;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.datajpa.DataJpaApplication;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * 시드 데이터(기본 20만 회원, 2000팀)를 적재한 애플리케이션에 /members, /members/{id}, 깊은 페이징 부하를 주고
+ * 백분위 지연 시간을 커밋별로 build/load-reports/history.csv 에 쌓는다.
+ * ./gradlew loadTest -Dload.members=2000000 -Dload.teams=5000 -Dload.concurrency=16 처럼 실행한다.
+ */
+@Tag("load")
+class MemberLoadTest {
+
+    private static final int MEMBERS = Integer.getInteger("load.members", 200_000);
+    private static final int TEAMS = Integer.getInteger("load.teams", 2_000);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 8);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("load.warmup-seconds", 3));
+    private static final Duration DURATION = Duration.ofSeconds(Long.getLong("load.duration-seconds", 10));
+    private static final int PAGE_SIZE = 20;
+
+    private static ConfigurableApplicationContext context;
+    private static String base;
+    private static long firstId;
+
+    private final HttpLoadDriver driver = new HttpLoadDriver();
+
+    @BeforeAll
+    static void start() {
+        // application.yml보다 우선하도록 기본 프로퍼티가 아닌 실행 인자로 넘긴다.
+        context = new SpringApplicationBuilder(DataJpaApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:load;DB_CLOSE_DELAY=-1",
+                        "--seed.enabled=true",
+                        "--seed.members=" + MEMBERS,
+                        "--seed.teams=" + TEAMS,
+                        "--seed.batch-size=5000",
+                        "--logging.level.org.hibernate.SQL=info",
+                        "--decorator.datasource.p6spy.enable-logging=false");
+        base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        firstId = context.getBean(JdbcTemplate.class)
+                .queryForObject("select min(member_id) from member", Long.class);
+    }
+
+    @AfterAll
+    static void stop() {
+        context.close();
+    }
+
+    @Test
+    @DisplayName("첫 페이지 목록")
+    void list() throws Exception {
+        run("list", random -> URI.create(base + "/members?size=" + PAGE_SIZE));
+    }
+
+    @Test
+    @DisplayName("앞쪽에 몰린 회원 단건 조회")
+    void member() throws Exception {
+        // 20%의 회원이 요청의 80%를 받도록 한다.
+        run("member", random -> {
+            int bound = random.nextDouble() < 0.8 ? MEMBERS / 5 : MEMBERS;
+            return URI.create(base + "/members/" + (firstId + random.nextInt(bound)));
+        });
+    }
+
+    @Test
+    @DisplayName("임의 위치 페이징")
+    void paging() throws Exception {
+        int pages = MEMBERS / PAGE_SIZE;
+        run("paging", random -> URI.create(base + "/members?size=" + PAGE_SIZE
+                + "&page=" + random.nextInt(pages) + "&sort=username"));
+    }
+
+    private void run(String scenario, Function<ThreadLocalRandom, URI> request) throws Exception {
+        HttpLoadDriver.LoadResult result = driver.run(scenario, CONCURRENCY, WARMUP, DURATION, request);
+        System.out.println(result);
+        report(result);
+    }
+
+    private void report(HttpLoadDriver.LoadResult result) throws IOException {
+        Path report = Path.of("build", "load-reports", "history.csv");
+        Files.createDirectories(report.getParent());
+        if (Files.notExists(report)) {
+            Files.writeString(report, "commit,time,scenario,members,concurrency,requests,errors,rps,p50_ms,p90_ms,p99_ms,max_ms\n");
+        }
+        String line = String.format("%s,%s,%s,%d,%d,%d,%d,%.1f,%.2f,%.2f,%.2f,%.2f%n",
+                commit(), LocalDateTime.now().withNano(0).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME), result.name(), MEMBERS, result.concurrency(),
+                result.requests(), result.errors(), result.throughput(), result.p50(), result.p90(), result.p99(), result.max());
+        Files.writeString(report, line, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    }
+
+    private static String commit() {
+        String commit = System.getProperty("load.commit");
+        if (commit != null) {
+            return commit;
+        }
+        try {
+            Process process = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").redirectErrorStream(true).start();
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+            return process.waitFor() == 0 ? output : "unknown";
+        } catch (IOException | InterruptedException e) {
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package study.datajpa.load;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import study.datajpa.DataJpaApplication;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 커넥션 풀 크기별로 /members 동시 사용자 수를 늘려가며 처리량이 더 늘지 않는 지점(knee)을 찾는다.
+ * 처리량 증가가 10% 미만이 되는 첫 동시 사용자 수를 knee로 본다.
+ * ./gradlew benchmark --tests '*PoolKneeBenchmarkTest' 로 실행한다.
+ */
+@Tag("benchmark")
+class PoolKneeBenchmarkTest {
+
+    private static final int[] CONCURRENCY = {1, 2, 4, 8, 16, 32, 64};
+    private static final Duration WARMUP = Duration.ofSeconds(1);
+    private static final Duration DURATION = Duration.ofSeconds(3);
+
+    private final HttpLoadDriver driver = new HttpLoadDriver();
+
+    @Test
+    @DisplayName("풀 크기별 /members 처리량 knee를 찾는다.")
+    void findKnee() throws Exception {
+        for (String profile : new String[]{"pool-small", "default", "pool-large"}) {
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(DataJpaApplication.class)
+                    .profiles(profile)
+                    .run("--server.port=0",
+                            "--spring.datasource.url=jdbc:h2:mem:knee-" + profile + ";DB_CLOSE_DELAY=-1",
+                            "--seed.enabled=true", "--seed.members=10000", "--seed.teams=100",
+                            "--logging.level.org.hibernate.SQL=info",
+                            "--decorator.datasource.p6spy.enable-logging=false")) {
+                String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                MeterRegistry registry = context.getBean(MeterRegistry.class);
+
+                double previous = 0;
+                Integer knee = null;
+                for (int concurrency : CONCURRENCY) {
+                    HttpLoadDriver.LoadResult result = driver.run(profile, concurrency, WARMUP, DURATION,
+                            random -> URI.create(base + "/members?page=" + random.nextInt(100) + "&size=50&total=true"));
+                    Timer acquire = registry.find("hikaricp.connections.acquire").timer();
+                    System.out.printf("%s acquireMax=%.2fms pending=%.0f%n", result,
+                            acquire != null ? acquire.max(TimeUnit.MILLISECONDS) : 0,
+                            registry.get("hikaricp.connections.pending").gauge().value());
+                    if (knee == null && previous > 0 && result.throughput() < previous * 1.1) {
+                        knee = concurrency;
+                    }
+                    previous = Math.max(previous, result.throughput());
+                }
+                System.out.printf("profile=%s knee=%s%n", profile, knee);
+            }
+        }
+    }
+}
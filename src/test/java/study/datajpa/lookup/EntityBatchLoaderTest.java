@@ -0,0 +1,81 @@
+package study.datajpa.lookup;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.MemberDto;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+class EntityBatchLoaderTest {
+
+    @Autowired EntityBatchLoader loader;
+    @Autowired EntityManager em;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired MockMvc mockMvc;
+
+    @Test
+    @DisplayName("queue로 모은 id는 첫 조회 때 한 번에 가져오고 요청 안에서 재사용한다.")
+    void batchAndMemoize() {
+        // given
+        Team teamA = new Team("teamA");
+        Team teamB = new Team("teamB");
+        em.persist(teamA);
+        em.persist(teamB);
+        Member member1 = new Member("member1", 10, teamA);
+        Member member2 = new Member("member2", 20, teamB);
+        Member member3 = new Member("member3", 30, null);
+        em.persist(member1);
+        em.persist(member2);
+        em.persist(member3);
+        em.flush();
+        em.clear();
+
+        List<Member> members = em.createQuery("select m from Member m order by m.id", Member.class).getResultList();
+
+        // when
+        members.forEach(m -> loader.queue(Team.class, m.getTeam() != null ? m.getTeam().getId() : null));
+        MemberDto first = new MemberDto(members.get(0), loader);
+        // 첫 조회에서 이미 teamB도 가져왔다면 DB 변경은 보이지 않는다.
+        jdbcTemplate.update("update team set name = 'changed'");
+        List<MemberDto> dtos = members.stream().map(m -> new MemberDto(m, loader)).toList();
+
+        // then
+        assertThat(first.teamName()).isEqualTo("teamA");
+        assertThat(dtos).extracting(MemberDto::teamName).containsExactly("teamA", "teamB", null);
+        assertThat(loader.get(Team.class, teamA.getId())).isSameAs(loader.get(Team.class, teamA.getId()));
+        assertThat(loader.get(Team.class, -1L)).isNull();
+        assertThat(loader.getAll(Member.class, List.of(member3.getId(), member1.getId())).values())
+                .extracting(Member::getUsername).containsExactly("member3", "member1");
+    }
+
+    @Test
+    @DisplayName("@PathVariable Member도 요청 범위 로더로 변환된다.")
+    void pathVariable() throws Exception {
+        // given
+        Member member = new Member("member1", 10, null);
+        em.persist(member);
+        em.flush();
+
+        // when, then
+        mockMvc.perform(get("/members2/{id}", member.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().string("member1"));
+    }
+}
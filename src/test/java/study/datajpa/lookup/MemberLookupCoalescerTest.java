@@ -0,0 +1,88 @@
+package study.datajpa.lookup;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import study.datajpa.dto.MemberDto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MemberLookupCoalescerTest {
+
+    @Test
+    @DisplayName("동시에 들어온 단건 조회는 적은 수의 쿼리로 합쳐지고 각자 자기 결과를 받는다.")
+    void coalesce() throws Exception {
+        // given
+        AtomicInteger queries = new AtomicInteger();
+        MemberLookupCoalescer coalescer = new MemberLookupCoalescer(ids -> {
+            queries.incrementAndGet();
+            sleep();
+            return ids.stream()
+                    .filter(id -> id % 10 != 0)
+                    .map(id -> new MemberDto(id, "member" + id, null))
+                    .toList();
+        });
+        int requests = 64;
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+
+        // when
+        List<Future<Optional<MemberDto>>> results = new ArrayList<>();
+        for (long i = 1; i <= requests; i++) {
+            long id = i % 32 + 1;
+            results.add(executor.submit(() -> {
+                start.await();
+                return coalescer.find(id);
+            }));
+        }
+        start.countDown();
+
+        // then
+        for (int i = 0; i < requests; i++) {
+            long id = (i + 1) % 32 + 1;
+            Optional<MemberDto> result = results.get(i).get();
+            if (id % 10 == 0) {
+                assertThat(result).isEmpty();
+            } else {
+                assertThat(result).get().extracting(MemberDto::username).isEqualTo("member" + id);
+            }
+        }
+        executor.shutdown();
+        assertThat(queries.get()).isLessThan(requests / 2);
+    }
+
+    @Test
+    @DisplayName("쿼리가 실패하면 함께 묶인 요청 모두 예외를 받고 다음 조회는 다시 실행된다.")
+    void failure() {
+        // given
+        AtomicInteger calls = new AtomicInteger();
+        MemberLookupCoalescer coalescer = new MemberLookupCoalescer(ids -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("db down");
+            }
+            return List.of(new MemberDto(1L, "member1", null));
+        });
+
+        // when, then
+        assertThatThrownBy(() -> coalescer.find(1L))
+                .hasRootCauseInstanceOf(IllegalStateException.class);
+        assertThat(coalescer.find(1L)).isPresent();
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(20);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package study.datajpa.lookup;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 백만 건 기준 UsernameIndex의 메모리 사용량과 조회 시간을 측정한다.
+ */
+@Tag("benchmark")
+class UsernameIndexBenchmarkTest {
+
+    private static final int ENTRIES = 1_000_000;
+
+    @Test
+    @DisplayName("백만 건당 메모리와 조회 시간을 측정한다.")
+    void footprintAndLookup() {
+        // given
+        UsernameIndex index = new UsernameIndex(true);
+        index.reserve(ENTRIES);
+        for (int i = 0; i < ENTRIES; i++) {
+            index.add("user" + i, i + 1);
+        }
+        index.markReady(index.generation());
+
+        // when
+        int hits = 0;
+        long start = System.nanoTime();
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < ENTRIES; i++) {
+                if (index.mightContain((i & 1) == 0 ? "user" + i : "missing" + i)) {
+                    hits++;
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        // then
+        System.out.printf("entries=%d memory=%.1fMB per million=%.1fMB lookup=%.0fns hits=%d%n",
+                index.size(),
+                index.memoryBytes() / 1024.0 / 1024.0,
+                index.memoryBytes() / 1024.0 / 1024.0 * 1_000_000 / index.size(),
+                (double) elapsed / (5L * ENTRIES),
+                hits);
+    }
+}
@@ -0,0 +1,115 @@
+package study.datajpa.lookup;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:username-index;DB_CLOSE_DELAY=-1",
+        "username-index.enabled=true"
+})
+class UsernameIndexTest {
+
+    @Autowired UsernameIndex usernameIndex;
+    @Autowired UsernameIndexLoader usernameIndexLoader;
+    @Autowired MemberRepository memberRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("추가, 삭제, 재해싱을 거쳐도 없는 username은 없다고 답한다.")
+    void addAndRemove() {
+        // given
+        UsernameIndex index = new UsernameIndex(true);
+        index.markReady(index.generation());
+        Map<Long, String> expected = new HashMap<>();
+        Random random = new Random(7);
+
+        // when
+        for (long id = 1; id <= 20_000; id++) {
+            String username = "user" + random.nextInt(5_000);
+            index.add(username, id);
+            expected.put(id, username);
+        }
+        for (long id = 1; id <= 20_000; id += 2) {
+            index.remove(expected.remove(id), id);
+        }
+
+        // then
+        assertThat(index.size()).isEqualTo(expected.size());
+        expected.values().forEach(username -> assertThat(index.mightContain(username)).isTrue());
+        assertThat(index.mightContain("nobody")).isFalse();
+    }
+
+    @Test
+    @DisplayName("없는 username은 DB를 조회하지 않고, 저장과 변경은 인덱스에 반영된다.")
+    void findByUsername() {
+        // given
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Long id = tx.execute(status -> memberRepository.save(new Member("indexed", 10, null)).getId());
+
+        // when
+        tx.executeWithoutResult(status -> memberRepository.findById(id).get().setUsername("renamed"));
+
+        // then
+        assertThat(usernameIndex.isReady()).isTrue();
+        assertThat(memberRepository.findByUsername("indexed")).isEmpty();
+        assertThat(memberRepository.findByUsername("renamed")).extracting(Member::getId).containsExactly(id);
+        assertThat(usernameIndex.mightContain("indexed")).isFalse();
+    }
+
+    @Test
+    @DisplayName("엔티티 이벤트를 거치지 않은 쓰기 뒤에는 다시 적재될 때까지 없는 이름도 DB에서 찾는다.")
+    void staleAfterRawWrite() {
+        // given
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            jdbcTemplate.update("insert into member (username, age) values ('bypassed', 10)");
+            usernameIndex.markStale();
+        });
+
+        // when
+        List<Member> beforeRebuild = memberRepository.findByUsername("bypassed");
+        boolean readyBeforeRebuild = usernameIndex.isReady();
+        usernameIndexLoader.rebuild();
+
+        // then
+        assertThat(beforeRebuild).extracting(Member::getUsername).containsExactly("bypassed");
+        assertThat(readyBeforeRebuild).isFalse();
+        assertThat(usernameIndex.isReady()).isTrue();
+        assertThat(usernameIndex.mightContain("bypassed")).isTrue();
+        assertThat(memberRepository.findByUsername("bypassed")).extracting(Member::getUsername).containsExactly("bypassed");
+        assertThat(usernameIndex.mightContain("never-written")).isFalse();
+    }
+
+    @Test
+    @DisplayName("적재 도중 stale로 표시되면 그 적재로는 인덱스를 믿을 수 있다고 표시하지 않는다.")
+    void staleDuringLoad() {
+        // given
+        UsernameIndex index = new UsernameIndex(true);
+        long generation = index.generation();
+
+        // when
+        index.markStale();
+        boolean ready = index.markReady(generation);
+
+        // then
+        assertThat(ready).isFalse();
+        assertThat(index.mightContain("anyone")).isTrue();
+        assertThat(index.markReady(index.generation())).isTrue();
+        assertThat(index.mightContain("anyone")).isFalse();
+    }
+}
@@ -0,0 +1,85 @@
+package study.datajpa.outbox;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox;DB_CLOSE_DELAY=-1",
+        "outbox.sink=memory",
+        "outbox.batch-size=2"
+})
+class OutboxTest {
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired TeamRepository teamRepository;
+    @Autowired OutboxEventRepository outboxEventRepository;
+    @Autowired OutboxPublisher outboxPublisher;
+    @Autowired OutboxSink outboxSink;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    TransactionTemplate tx;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        outboxPublisher.publishPending();
+        queue().clear();
+    }
+
+    @Test
+    @DisplayName("Member, Team 변경은 같은 트랜잭션에서 아웃박스에 기록되고 배치로 발행된다.")
+    void recordAndPublish() {
+        // given
+        Long memberId = tx.execute(status -> {
+            Team team = teamRepository.save(new Team("teamA"));
+            return memberRepository.save(new Member("member1", 10, team)).getId();
+        });
+        tx.executeWithoutResult(status -> memberRepository.findById(memberId).get().setAge(20));
+        tx.executeWithoutResult(status -> memberRepository.bulkAgePlus(20));
+        tx.executeWithoutResult(status -> memberRepository.deleteById(memberId));
+
+        // when
+        outboxPublisher.publishPending();
+
+        // then
+        List<OutboxMessage> messages = new ArrayList<>(queue());
+        assertThat(messages).extracting(m -> m.aggregateType() + ":" + m.eventType())
+                .containsExactly("Team:CREATED", "Member:CREATED", "Member:UPDATED",
+                        "Member:BULK_AGE_INCREASED", "Member:DELETED");
+        assertThat(messages.get(2).payload()).contains("\"age\":20").contains("\"previous\":{\"username\":\"member1\",\"age\":10");
+        assertThat(outboxEventRepository.findByPublishedDateIsNullOrderByIdAsc(org.springframework.data.domain.Pageable.unpaged()))
+                .isEmpty();
+    }
+
+    @Test
+    @DisplayName("롤백된 트랜잭션의 변경은 아웃박스에 남지 않는다.")
+    void rollback() {
+        // when
+        tx.executeWithoutResult(status -> {
+            memberRepository.save(new Member("member1", 10, null));
+            status.setRollbackOnly();
+        });
+        outboxPublisher.publishPending();
+
+        // then
+        assertThat(queue()).isEmpty();
+    }
+
+    private java.util.concurrent.BlockingQueue<OutboxMessage> queue() {
+        return ((InMemoryOutboxSink) outboxSink).getQueue();
+    }
+}
@@ -0,0 +1,73 @@
+package study.datajpa.purge;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.MemberSpe;
+import study.datajpa.repository.TeamRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:purge;DB_CLOSE_DELAY=-1",
+        "purge.enabled=true",
+        "purge.batch-size=10",
+        "purge.pause=0s",
+        "scheduling.enabled=false"
+})
+class SoftDeletePurgerTest {
+
+    @Autowired SoftDeletePurger softDeletePurger;
+    @Autowired MemberRepository memberRepository;
+    @Autowired TeamRepository teamRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("보존 기간이 지난 삭제 회원과 참조가 없어진 삭제 팀만 id 구간별로 지운다.")
+    void purge() {
+        // given
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Long teamId = tx.execute(status -> {
+            Team team = teamRepository.save(new Team("purgeTeam"));
+            List<Member> members = new ArrayList<>();
+            for (int i = 0; i < 35; i++) {
+                members.add(new Member("purge" + i, i, i % 2 == 0 ? team : null));
+            }
+            memberRepository.saveAll(members);
+            return team.getId();
+        });
+        tx.execute(status -> memberRepository.softDelete(MemberSpe.ageGreaterThan(4)));
+        LocalDateTime cutoff = LocalDateTime.now().plusSeconds(1);
+        tx.executeWithoutResult(status -> memberRepository.softDelete(MemberSpe.teamId(teamId)));
+        tx.executeWithoutResult(status -> teamRepository.deleteById(teamId));
+
+        // when
+        int beforeRetention = softDeletePurger.purgeMembers(LocalDateTime.now().minusDays(1));
+        int teamsWithRows = softDeletePurger.purgeTeams(cutoff);
+        int members = softDeletePurger.purgeMembers(cutoff);
+        int teams = softDeletePurger.purgeTeams(cutoff);
+
+        // then
+        assertThat(beforeRetention).isZero();
+        assertThat(teamsWithRows).isZero();
+        // 팀이 없고 나이가 4 이하인 회원 2명(1, 3살)만 남는다.
+        assertThat(members).isEqualTo(33);
+        assertThat(teams).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForList("select age from member where deleted_at is null", Integer.class))
+                .containsExactlyInAnyOrder(1, 3);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from member", Long.class)).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from team", Long.class)).isZero();
+    }
+}
@@ -0,0 +1,91 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Hibernate Statistics로 쿼리 수, 로딩된 엔티티 수, 지연 로딩 발생 여부를 검증한다.
+ * reset() 이후 누적된 값을 보므로 검증할 구간 직전에 호출한다.
+ * <p>
+ * Statistics는 SessionFactory 전체의 카운터라 스케줄러 같은 다른 스레드의 쿼리도 함께 센다.
+ * 사용하는 테스트는 scheduling.enabled=false로 띄운다.
+ */
+public class HibernateStatisticsAssertions {
+
+    private final Statistics statistics;
+
+    public HibernateStatisticsAssertions(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        assertThat(statistics.isStatisticsEnabled()).as("hibernate.generate_statistics").isTrue();
+    }
+
+    public void reset() {
+        statistics.clear();
+    }
+
+    /**
+     * DB로 보낸 JDBC statement 수를 검증한다. 지연 로딩이나 N+1로 늘어난 쿼리도 포함된다.
+     */
+    public HibernateStatisticsAssertions assertQueryCount(long expected) {
+        assertThat(statistics.getPrepareStatementCount())
+                .as("statements, queries=%s", queries())
+                .isEqualTo(expected);
+        return this;
+    }
+
+    /**
+     * 쿼리 결과나 지연 로딩으로 영속성 컨텍스트에 올라온 엔티티 수를 검증한다.
+     */
+    public HibernateStatisticsAssertions assertEntitiesLoaded(Class<?> type, long expected) {
+        assertThat(statistics.getEntityStatistics(type.getName()).getLoadCount())
+                .as("%s loaded", type.getSimpleName())
+                .isEqualTo(expected);
+        return this;
+    }
+
+    /**
+     * 프록시나 지연 컬렉션이 별도 쿼리로 초기화된 적이 없는지 검증한다.
+     * Statistics의 entity fetch 카운터는 프록시 초기화를 세지 않으므로,
+     * 쿼리 실행과 엔티티 insert, update, delete로 설명되지 않는 statement가 있으면 지연 로딩으로 본다.
+     * em.find 같은 단건 조회도 여기에 걸리니 쿼리로 읽는 구간에서 쓴다.
+     */
+    public HibernateStatisticsAssertions assertNoLazyInit() {
+        long dml = statistics.getEntityInsertCount() + statistics.getEntityUpdateCount() + statistics.getEntityDeleteCount();
+        assertThat(statistics.getPrepareStatementCount() - statistics.getQueryExecutionCount() - dml)
+                .as("lazy loading statements, queries=%s", queries())
+                .isZero();
+        assertThat(statistics.getEntityFetchCount())
+                .as("lazy entity fetches, entities=%s", fetchedEntities())
+                .isZero();
+        assertThat(statistics.getCollectionFetchCount())
+                .as("lazy collection fetches, collections=%s", fetchedCollections())
+                .isZero();
+        return this;
+    }
+
+    private String queries() {
+        return Arrays.stream(statistics.getQueries())
+                .map(query -> query + " x" + statistics.getQueryStatistics(query).getExecutionCount())
+                .collect(Collectors.joining(", ", "[", "]"));
+    }
+
+    private String fetchedEntities() {
+        return Arrays.stream(statistics.getEntityNames())
+                .filter(name -> statistics.getEntityStatistics(name).getFetchCount() > 0)
+                .map(name -> name + " x" + statistics.getEntityStatistics(name).getFetchCount())
+                .collect(Collectors.joining(", ", "[", "]"));
+    }
+
+    private String fetchedCollections() {
+        return Arrays.stream(statistics.getCollectionRoleNames())
+                .filter(role -> statistics.getCollectionStatistics(role).getFetchCount() > 0)
+                .map(role -> role + " x" + statistics.getCollectionStatistics(role).getFetchCount())
+                .collect(Collectors.joining(", ", "[", "]"));
+    }
+}
@@ -0,0 +1,120 @@
+package study.datajpa.repository;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.MemberDto;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 2000건 페이지를 findAll(pageable).map(MemberDto::new)와 findMemberDtoPage로 만들 때 행당 할당량을 비교한다.
+ * 행당 바이트는 스레드 할당 카운터로 재고, 어떤 클래스가 할당을 차지하는지는 JFR 할당 샘플로 본다.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:dto-allocation;DB_CLOSE_DELAY=-1")
+class MemberDtoAllocationBenchmarkTest {
+
+    private static final int PAGE_SIZE = 2000;
+    private static final int ROUNDS = 50;
+    private static final int TOP_CLASSES = 6;
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("엔티티를 거치는 변환과 TupleTransformer 변환의 행당 할당량을 비교한다.")
+    void bytesPerRow() throws Exception {
+        // given
+        jdbcTemplate.update("insert into team (name, member_count) values ('teamA', 0)");
+        Long teamId = jdbcTemplate.queryForObject("select max(team_id) from team", Long.class);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE * 2; i++) {
+            rows.add(new Object[]{"member" + i, i % 100, i % 2 == 0 ? teamId : null});
+        }
+        jdbcTemplate.batchUpdate("insert into member (username, age, team_id) values (?, ?, ?)", rows);
+        Pageable pageable = PageRequest.of(0, PAGE_SIZE);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+
+        // when
+        long mapped = measure("Page.map", () -> tx.execute(status -> memberRepository.findAll(pageable).map(MemberDto::new)));
+        long transformed = measure("TupleTransformer", () -> memberRepository.findMemberDtoPage(pageable));
+
+        // then
+        assertThat(transformed).isLessThan(mapped);
+    }
+
+    private long measure(String name, Supplier<?> body) throws Exception {
+        for (int i = 0; i < ROUNDS / 2; i++) {
+            body.get();
+        }
+
+        Path file = Files.createTempFile("member-dto", ".jfr");
+        long bytes;
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.ObjectAllocationSample").with("throttle", "100000/s");
+            recording.start();
+            long before = allocatedBytes();
+            for (int i = 0; i < ROUNDS; i++) {
+                body.get();
+            }
+            bytes = allocatedBytes() - before;
+            recording.stop();
+            recording.dump(file);
+        }
+
+        long bytesPerRow = bytes / ROUNDS / PAGE_SIZE;
+        System.out.printf("%-16s rows=%d allocated=%dB/row%n", name, PAGE_SIZE, bytesPerRow);
+        Map<String, Long> samples = allocationSamples(file);
+        long sampled = samples.values().stream().mapToLong(Long::longValue).sum();
+        samples.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(TOP_CLASSES)
+                .forEach(entry -> System.out.printf("    %5.1f%% %s%n", entry.getValue() * 100.0 / sampled, entry.getKey()));
+        Files.delete(file);
+        return bytesPerRow;
+    }
+
+    /**
+     * 현재 스레드에서 샘플링된 할당을 클래스별 추정 바이트로 합친다.
+     */
+    private Map<String, Long> allocationSamples(Path file) throws Exception {
+        long threadId = Thread.currentThread().getId();
+        Map<String, Long> weights = new HashMap<>();
+        for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+            RecordedThread thread = event.getThread();
+            if (thread == null || thread.getJavaThreadId() != threadId) {
+                continue;
+            }
+            weights.merge(event.getClass("objectClass").getName(), event.getLong("weight"), Long::sum);
+        }
+        return weights;
+    }
+
+    private long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getCurrentThreadAllocatedBytes();
+    }
+}
@@ -2,6 +2,9 @@ package study.datajpa.repository;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,6 +16,7 @@ import study.datajpa.dto.MemberDto;
 import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -197,9 +201,9 @@ class MemberRepositoryTest {
         List<MemberDto> result = memberRepository.findMemberDto();
 
         // then
-        assertThat(result.get(0).getId()).isEqualTo(member.getId());
-        assertThat(result.get(0).getUsername()).isEqualTo(member.getUsername());
-        assertThat(result.get(0).getTeamName()).isEqualTo(member.getTeam().getName());
+        assertThat(result.get(0).id()).isEqualTo(member.getId());
+        assertThat(result.get(0).username()).isEqualTo(member.getUsername());
+        assertThat(result.get(0).teamName()).isEqualTo(member.getTeam().getName());
     }
 
 
@@ -257,6 +261,29 @@ class MemberRepositoryTest {
         assertThat(page.hasNext()).isTrue();
     }
 
+    @Test
+    @DisplayName("엔티티 없이 MemberDto 페이지를 조회할 수 있다.")
+    void findMemberDtoPage() {
+        // given
+        Team team = teamRepository.save(new Team("teamA"));
+        for (int i = 0; i < 5; i++) {
+            memberRepository.save(new Member("member" + i, 10, i % 2 == 0 ? team : null));
+        }
+        em.flush();
+        em.clear();
+
+        PageRequest pageRequest = PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "username").and(Sort.by("id")));
+
+        // when
+        Page<MemberDto> page = memberRepository.findMemberDtoPage(pageRequest);
+
+        // then
+        Page<MemberDto> expected = memberRepository.findAll(pageRequest).map(MemberDto::new);
+        assertThat(page.getContent()).isEqualTo(expected.getContent());
+        assertThat(page.getTotalElements()).isEqualTo(expected.getTotalElements());
+        assertThat(page.getNumber()).isEqualTo(1);
+    }
+
     @Test
     @DisplayName("Member List를 slice페이징 처리를 해서 조회할 수 있다.")
     void findBySlicePage() {
@@ -306,6 +333,27 @@ class MemberRepositoryTest {
         assertThat(member5.getAge()).isEqualTo(41);
     }
 
+    @Test
+    @DisplayName("벌크 수정 시 수정일자, 수정자도 함께 갱신된다.")
+    void bulkAgePlusAudit() throws Exception {
+        // given
+        Member member = memberRepository.save(new Member("member1", 20, null));
+        em.flush();
+        em.clear();
+        LocalDateTime before = memberRepository.findById(member.getId()).get().getLastModifiedDate();
+        em.clear();
+
+        // when
+        Thread.sleep(10);
+        memberRepository.bulkAgePlus(20);
+        Member findMember = memberRepository.findById(member.getId()).get();
+
+        // then
+        assertThat(findMember.getAge()).isEqualTo(21);
+        assertThat(findMember.getLastModifiedDate()).isAfter(before);
+        assertThat(findMember.getLastModifiedBy()).isNotNull();
+    }
+
     @Test
     @DisplayName("Member의 팀을 지연로딩 한다.")
     void findMemberByLazy() {
@@ -403,6 +451,62 @@ class MemberRepositoryTest {
         assertThat(result.get(0).getId()).isEqualTo(member1.getId());
     }
 
+    @Test
+    @DisplayName("팀 조건을 여러 개 조합해도 팀 조인은 한 번만 생성된다.")
+    void specJoinReuse() {
+        // given
+        Team team = new Team("teamA");
+        em.persist(team);
+        em.persist(new Member("user1", 10, team));
+        em.persist(new Member("user2", 20, team));
+
+        em.flush();
+        em.clear();
+
+        CriteriaBuilder builder = em.getCriteriaBuilder();
+        CriteriaQuery<Member> query = builder.createQuery(Member.class);
+        Root<Member> root = query.from(Member.class);
+
+        // when
+        Specification<Member> spec = MemberSpe.teamName("teamA").and(MemberSpe.teamName("teamA"));
+        query.where(spec.toPredicate(root, query, builder));
+        List<Member> result = em.createQuery(query).getResultList();
+
+        // then
+        assertThat(root.getJoins()).hasSize(1);
+        assertThat(result).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Specification으로 페이징과 키셋 스크롤 조회를 할 수 있다.")
+    void specPagingAndKeysetScroll() {
+        // given
+        Team team = new Team("teamA");
+        em.persist(team);
+        for (int i = 1; i <= 5; i++) {
+            em.persist(new Member("user" + i, i * 10, team));
+        }
+
+        em.flush();
+        em.clear();
+
+        Specification<Member> spec = MemberSpe.teamName("teamA").and(MemberSpe.ageGreaterThan(10));
+
+        // when
+        Page<Member> page = memberRepository.findAll(spec, PageRequest.of(0, 2, Sort.by("username")));
+        Window<Member> first = memberRepository.findBy(spec, q -> q.sortBy(Sort.by("id")).limit(2)
+                .scroll(ScrollPosition.keyset()));
+        Window<Member> second = memberRepository.findBy(spec, q -> q.sortBy(Sort.by("id")).limit(2)
+                .scroll(first.positionAt(first.size() - 1)));
+
+        // then
+        assertThat(page.getTotalElements()).isEqualTo(4);
+        assertThat(page.getContent()).extracting("username").containsExactly("user2", "user3");
+        assertThat(first.getContent()).extracting("username").containsExactly("user2", "user3");
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.getContent()).extracting("username").containsExactly("user4", "user5");
+    }
+
     @Test
     @DisplayName("queryByExample")
     void queryByExample() {
@@ -425,7 +529,7 @@ class MemberRepositoryTest {
         memberFindParam.setTeam(teamFindParam);
 
         ExampleMatcher matcher = ExampleMatcher.matching()
-                .withIgnorePaths("age");
+                .withIgnorePaths("age", "team.memberCount");
         Example<Member> example = Example.of(memberFindParam, matcher);
 
         List<Member> result = memberRepository.findAll(example);
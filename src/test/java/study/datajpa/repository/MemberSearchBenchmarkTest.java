@@ -0,0 +1,84 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.search.mapper.orm.Search;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntSupplier;
+
+/**
+ * username 접두어, 부분 일치 검색을 SQL LIKE와 검색 인덱스로 각각 실행해 시간을 비교한다.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:search-benchmark;DB_CLOSE_DELAY=-1")
+class MemberSearchBenchmarkTest {
+
+    private static final int MEMBERS = 100_000;
+    private static final int ROUNDS = 200;
+    private static final String[] WORDS = {"kim", "lee", "park", "choi", "jung", "kang", "cho", "yoon", "jang", "lim"};
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired EntityManager em;
+    @Autowired EntityManagerFactory entityManagerFactory;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("username 검색을 SQL LIKE와 검색 인덱스로 비교한다.")
+    void likeVersusSearch() throws InterruptedException {
+        // given
+        Random random = new Random(42);
+        List<Object[]> rows = new ArrayList<>(MEMBERS);
+        for (int i = 0; i < MEMBERS; i++) {
+            rows.add(new Object[]{"user" + i + " " + WORDS[random.nextInt(WORDS.length)], i % 100});
+        }
+        jdbcTemplate.batchUpdate("insert into member (username, age) values (?, ?)", rows);
+        Search.mapping(entityManagerFactory).scope(Member.class).massIndexer().startAndWait();
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+
+        // when, then
+        measure("like prefix", () -> tx.execute(status -> like("user123%")));
+        measure("search prefix", () -> (int) memberRepository.searchByUsernamePrefix("user123", PageRequest.of(0, 20)).getTotalElements());
+        measure("like contains", () -> tx.execute(status -> like("%park%")));
+        measure("search word", () -> (int) memberRepository.searchByUsername("park", PageRequest.of(0, 20)).getTotalElements());
+    }
+
+    private int like(String pattern) {
+        List<Member> page = em.createQuery("select m from Member m where m.username like :pattern order by m.username", Member.class)
+                .setParameter("pattern", pattern)
+                .setMaxResults(20)
+                .getResultList();
+        Long total = em.createQuery("select count(m) from Member m where m.username like :pattern", Long.class)
+                .setParameter("pattern", pattern)
+                .getSingleResult();
+        return page.size() + total.intValue();
+    }
+
+    private void measure(String name, IntSupplier query) {
+        for (int i = 0; i < ROUNDS / 4; i++) {
+            query.getAsInt();
+        }
+        long sink = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            sink += query.getAsInt();
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%-14s members=%d avg=%.3fms (sink=%d)%n", name, MEMBERS, elapsed / ROUNDS / 1_000_000.0, sink);
+    }
+}
@@ -0,0 +1,91 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 검색 인덱스는 커밋 시점에 갱신되므로 트랜잭션을 직접 커밋하며 검증한다.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:search;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.search.indexing.plan.synchronization.strategy=sync"
+})
+class MemberSearchTest {
+
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("username을 단어와 접두어로 검색하고 페이징, 정렬할 수 있다.")
+    void search() {
+        // given
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.executeWithoutResult(status -> {
+            memberRepository.save(new Member("Alice Kim", 10, null));
+            memberRepository.save(new Member("alina park", 20, null));
+            memberRepository.save(new Member("bob kim", 30, null));
+            memberRepository.save(new Member("Albert", 40, null));
+        });
+
+        // when
+        Page<Member> kim = memberRepository.searchByUsername("KIM", PageRequest.of(0, 10));
+        Page<Member> prefix = memberRepository.searchByUsernamePrefix("al",
+                PageRequest.of(0, 2, Sort.by("username")));
+        Page<Member> nextPage = memberRepository.searchByUsernamePrefix("al",
+                PageRequest.of(1, 2, Sort.by("username")));
+
+        // then
+        assertThat(kim.getContent()).extracting(Member::getUsername)
+                .containsExactlyInAnyOrder("Alice Kim", "bob kim");
+        assertThat(prefix.getTotalElements()).isEqualTo(3);
+        assertThat(prefix.getContent()).extracting(Member::getUsername).containsExactly("Albert", "Alice Kim");
+        assertThat(nextPage.getContent()).extracting(Member::getUsername).containsExactly("alina park");
+    }
+
+    @Test
+    @DisplayName("회원 수정, 삭제는 커밋 시 검색 인덱스에 반영된다.")
+    void incrementalIndexing() {
+        // given
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Long[] ids = tx.execute(status -> new Long[]{
+                memberRepository.save(new Member("zed one", 10, null)).getId(),
+                memberRepository.save(new Member("zed two", 20, null)).getId()
+        });
+
+        // when
+        tx.executeWithoutResult(status -> memberRepository.findById(ids[0]).get().setUsername("yuri one"));
+        tx.executeWithoutResult(status -> memberRepository.deleteById(ids[1]));
+
+        // then
+        assertThat(memberRepository.searchByUsernamePrefix("zed", PageRequest.of(0, 10))).isEmpty();
+        assertThat(memberRepository.searchByUsername("yuri", PageRequest.of(0, 10)).getContent())
+                .extracting(Member::getId).containsExactly(ids[0]);
+    }
+
+    @Test
+    @DisplayName("검색 결과는 username 외의 속성으로 정렬할 수 없다.")
+    void unsupportedSort() {
+        assertThatThrownBy(() -> memberRepository.searchByUsername("kim", PageRequest.of(0, 10, Sort.by("age"))))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class)
+                .hasMessageContaining("age");
+        assertThatThrownBy(() -> memberRepository.searchByUsernamePrefix("al",
+                PageRequest.of(0, 10, Sort.by("username", "id"))))
+                .isInstanceOf(InvalidDataAccessApiUsageException.class)
+                .hasMessageContaining("id");
+    }
+}
@@ -0,0 +1,131 @@
+package study.datajpa.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.dto.TeamStatsDto;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.summary.TeamSummaryChecker;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 삭제 이벤트를 받는 아웃박스, 팀 집계, 검색 인덱스는 커밋 시점에 반영되므로 트랜잭션을 직접 커밋하며 검증한다.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:soft-delete;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.search.indexing.plan.synchronization.strategy=sync",
+        "scheduling.enabled=false",
+        "team.member-count.enabled=true"
+})
+class MemberSoftDeleteTest {
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired TeamRepository teamRepository;
+    @Autowired TeamSummaryChecker teamSummaryChecker;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("삭제한 회원은 행이 남지만 조회, 집계, 팀 연관 컬렉션에서 빠진다.")
+    void deleteKeepsRow() {
+        // given
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Long[] ids = tx.execute(status -> {
+            Team team = teamRepository.save(new Team("softTeam"));
+            Member kept = memberRepository.save(new Member("softKept", 10, team));
+            Member deleted = memberRepository.save(new Member("softDeleted", 20, team));
+            return new Long[]{team.getId(), kept.getId(), deleted.getId()};
+        });
+
+        // when
+        tx.executeWithoutResult(status -> memberRepository.deleteById(ids[2]));
+        Integer teamMembers = tx.execute(status -> teamRepository.findById(ids[0]).get().getMembers().size());
+        List<Long> repaired = tx.execute(status -> teamSummaryChecker.repair());
+
+        // then
+        assertThat(jdbcTemplate.queryForObject("select deleted_at from member where member_id = ?",
+                Timestamp.class, ids[2])).isNotNull();
+        assertThat(memberRepository.findById(ids[2])).isEmpty();
+        assertThat(memberRepository.findByUsername("softDeleted")).isEmpty();
+        assertThat(teamRepository.findTeamStats(ids[0])).get()
+                .extracting(TeamStatsDto::memberCount).isEqualTo(1L);
+        assertThat(teamMembers).isEqualTo(1);
+        assertThat(memberCount(ids[0])).isEqualTo(1);
+        assertThat(repaired).isEmpty();
+    }
+
+    @Test
+    @DisplayName("조건으로 일괄 삭제하면 엔티티 로딩 없이 지우고 팀 회원 수, 집계, 아웃박스, 검색 인덱스를 함께 고친다.")
+    void bulkSoftDelete() {
+        // given
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Long[] ids = tx.execute(status -> {
+            Team teamA = teamRepository.save(new Team("bulkA"));
+            Team teamB = teamRepository.save(new Team("bulkB"));
+            Member young = memberRepository.save(new Member("bulk young", 15, teamA));
+            Member old = memberRepository.save(new Member("bulk old", 45, teamA));
+            Member other = memberRepository.save(new Member("bulk other", 50, teamB));
+            return new Long[]{teamA.getId(), teamB.getId(), young.getId(), old.getId(), other.getId()};
+        });
+
+        // when
+        Integer deleted = tx.execute(status -> memberRepository.softDelete(
+                MemberSpe.teamName("bulkA").and(MemberSpe.ageGreaterThan(20))));
+        Integer again = tx.execute(status -> memberRepository.softDelete(
+                MemberSpe.teamName("bulkA").and(MemberSpe.ageGreaterThan(20))));
+        List<Long> repaired = tx.execute(status -> teamSummaryChecker.repair());
+
+        // then
+        assertThat(deleted).isEqualTo(1);
+        assertThat(again).isZero();
+        assertThat(memberRepository.findById(ids[3])).isEmpty();
+        assertThat(memberRepository.findById(ids[2])).isPresent();
+        assertThat(memberCount(ids[0])).isEqualTo(1);
+        assertThat(memberCount(ids[1])).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from outbox_event where aggregate_type = 'Member' and aggregate_id = ? and event_type = 'DELETED'",
+                Long.class, ids[3])).isEqualTo(1);
+        assertThat(memberRepository.searchByUsername("bulk", PageRequest.of(0, 10)).getContent())
+                .extracting(Member::getId).containsExactlyInAnyOrder(ids[2], ids[4]);
+        assertThat(repaired).isEmpty();
+    }
+
+    @Test
+    @DisplayName("삭제되지 않은 회원이 남은 팀은 삭제할 수 없고, 회원을 지우면 삭제할 수 있다.")
+    void deleteTeam() {
+        // given
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Long[] ids = tx.execute(status -> {
+            Team team = teamRepository.save(new Team("closingTeam"));
+            Member member = memberRepository.save(new Member("closingMember", 30, team));
+            return new Long[]{team.getId(), member.getId()};
+        });
+
+        // when
+        assertThatThrownBy(() -> tx.executeWithoutResult(status -> teamRepository.deleteById(ids[0])))
+                .isInstanceOf(TeamNotEmptyException.class);
+        tx.executeWithoutResult(status -> memberRepository.deleteById(ids[1]));
+        tx.executeWithoutResult(status -> teamRepository.deleteById(ids[0]));
+
+        // then
+        assertThat(teamRepository.findById(ids[0])).isEmpty();
+        assertThat(teamRepository.findTeamStats()).extracting(TeamStatsDto::teamId).doesNotContain(ids[0]);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from team_summary where team_id = ?",
+                Long.class, ids[0])).isZero();
+    }
+
+    private Integer memberCount(Long teamId) {
+        return jdbcTemplate.queryForObject("select member_count from team where team_id = ?", Integer.class, teamId);
+    }
+}
@@ -0,0 +1,96 @@
+package study.datajpa.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 회원과 팀을 함께 읽는 조회가 쿼리 한 번으로 끝나는지 Hibernate Statistics로 검증한다.
+ */
+@SpringBootTest(properties = {
+        "scheduling.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:query-budget"
+})
+@Transactional
+class QueryBudgetTest {
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired TeamRepository teamRepository;
+    @Autowired EntityManagerFactory entityManagerFactory;
+    @PersistenceContext
+    EntityManager em;
+
+    HibernateStatisticsAssertions statistics;
+
+    @BeforeEach
+    void setUp() {
+        Team teamA = teamRepository.save(new Team("teamA"));
+        Team teamB = teamRepository.save(new Team("teamB"));
+        for (int i = 0; i < 10; i++) {
+            memberRepository.save(new Member("member" + i, i, i % 2 == 0 ? teamA : teamB));
+        }
+        em.flush();
+        em.clear();
+
+        statistics = new HibernateStatisticsAssertions(entityManagerFactory);
+        statistics.reset();
+    }
+
+    @Test
+    @DisplayName("fetch join 조회는 쿼리 한 번에 회원과 팀을 모두 읽는다.")
+    void fetchJoin() {
+        // when
+        List<Member> members = memberRepository.findMemberFetchJoin();
+        List<String> teamNames = members.stream().map(member -> member.getTeam().getName()).toList();
+
+        // then
+        assertThat(teamNames).hasSize(10);
+        statistics.assertQueryCount(1)
+                .assertEntitiesLoaded(Member.class, 10)
+                .assertEntitiesLoaded(Team.class, 2)
+                .assertNoLazyInit();
+    }
+
+    @Test
+    @DisplayName("EntityGraph 조회는 쿼리 한 번에 회원과 팀을 모두 읽는다.")
+    void entityGraph() {
+        // when
+        List<Member> members = memberRepository.findEntityGraph();
+        List<String> teamNames = members.stream().map(member -> member.getTeam().getName()).toList();
+
+        // then
+        assertThat(teamNames).hasSize(10);
+        statistics.assertQueryCount(1)
+                .assertEntitiesLoaded(Member.class, 10)
+                .assertEntitiesLoaded(Team.class, 2)
+                .assertNoLazyInit();
+    }
+
+    @Test
+    @DisplayName("fetch join 없이 팀에 접근하면 지연 로딩 쿼리가 검출된다.")
+    void lazyInitDetected() {
+        // when
+        List<Member> members = memberRepository.findAll();
+        members.forEach(member -> member.getTeam().getName());
+
+        // then
+        statistics.assertQueryCount(2)
+                .assertEntitiesLoaded(Team.class, 2);
+        assertThatThrownBy(() -> statistics.assertNoLazyInit())
+                .isInstanceOf(AssertionError.class)
+                .hasMessageContaining("lazy loading statements");
+    }
+}
@@ -1,15 +1,20 @@
 package study.datajpa.repository;
 
+import jakarta.persistence.EntityManager;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import study.datajpa.dto.TeamStatsDto;
+import study.datajpa.entity.Member;
 import study.datajpa.entity.Team;
 
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 
 @SpringBootTest
 @Transactional
@@ -18,6 +23,12 @@ class TeamRepositoryTest {
     @Autowired
     TeamRepository teamRepository;
 
+    @Autowired
+    MemberRepository memberRepository;
+
+    @Autowired
+    EntityManager em;
+
     @Test
     @DisplayName("Team을 저장 할 수 있다.")
     void save() {
@@ -96,4 +107,59 @@ class TeamRepositoryTest {
         assertThat(teams).isEmpty();
         assertThat(afterDeleteCount).isZero();
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("회원 컬렉션을 로딩하지 않고 팀별 회원 수와 나이 통계를 조회할 수 있다.")
+    void teamStats() {
+        // given
+        Team teamA = teamRepository.save(new Team("teamA"));
+        Team teamB = teamRepository.save(new Team("teamB"));
+        Team teamC = teamRepository.save(new Team("teamC"));
+        memberRepository.save(new Member("member1", 10, teamA));
+        memberRepository.save(new Member("member2", 20, teamA));
+        memberRepository.save(new Member("member3", 30, teamB));
+        em.flush();
+        em.clear();
+
+        // when
+        List<TeamStatsDto> stats = teamRepository.findTeamStats();
+        TeamStatsDto statsA = teamRepository.findTeamStats(teamA.getId()).get();
+
+        // then
+        assertThat(stats).extracting(TeamStatsDto::name, TeamStatsDto::memberCount)
+                .containsExactly(
+                        tuple("teamA", 2L),
+                        tuple("teamB", 1L),
+                        tuple("teamC", 0L));
+        assertThat(statsA.avgAge()).isEqualTo(15.0);
+        assertThat(statsA.minAge()).isEqualTo(10);
+        assertThat(statsA.maxAge()).isEqualTo(20);
+        assertThat(teamRepository.countMembers(teamA.getId())).isEqualTo(2);
+        assertThat(teamRepository.averageAge(teamC.getId())).isNull();
+    }
+
+    @Test
+    @DisplayName("회원 수는 컬렉션을 초기화하지 않고 세고, 팀 변경은 연관관계 관리가 컬렉션에 한 번만 반영한다.")
+    void countWithoutCollection() {
+        // given
+        Team teamA = teamRepository.save(new Team("teamA"));
+        Team teamB = teamRepository.save(new Team("teamB"));
+        Member member = memberRepository.save(new Member("member1", 10, teamA));
+        memberRepository.save(new Member("member2", 20, teamB));
+        em.flush();
+        em.clear();
+
+        // when
+        Team findTeamB = teamRepository.findById(teamB.getId()).get();
+        long countB = teamRepository.countMembers(teamB.getId());
+        boolean initializedByCount = Hibernate.isInitialized(findTeamB.getMembers());
+        Member findMember = memberRepository.findById(member.getId()).get();
+        findMember.changeTeam(findTeamB);
+        findMember.changeTeam(teamRepository.getReferenceById(teamB.getId()));
+
+        // then
+        assertThat(countB).isEqualTo(1);
+        assertThat(initializedByCount).isFalse();
+        assertThat(findTeamB.getMembers()).containsOnlyOnce(findMember).hasSize(2);
+    }
+}
@@ -0,0 +1,100 @@
+package study.datajpa.scan;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 같은 나이 회원 전체를 1000건씩 처리할 때 findSliceByAge 페이지 순회와 MemberScanner의 미리 읽기를 비교한다.
+ * Window마다 처리 시간(WORK_MILLIS)이 있어야 조회와 처리가 겹치는 효과가 드러난다.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:scan-benchmark;DB_CLOSE_DELAY=-1")
+class MemberScanBenchmarkTest {
+
+    private static final int MEMBERS = 50_000;
+    private static final int SLICE = 1000;
+    private static final int WORK_MILLIS = 10;
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired MemberScanner memberScanner;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("페이지 순회와 미리 읽기 스캔의 전체 처리 시간을 비교한다.")
+    void scan() throws Exception {
+        // given
+        jdbcTemplate.update("insert into team (name, member_count) values ('teamA', 0)");
+        Long teamId = jdbcTemplate.queryForObject("select max(team_id) from team", Long.class);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < MEMBERS; i++) {
+            rows.add(new Object[]{"member" + i, 30, teamId});
+        }
+        jdbcTemplate.batchUpdate("insert into member (username, age, team_id) values (?, ?, ?)", rows);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+
+        // 클래스 로딩과 쿼리 플랜 캐시를 먼저 채운다.
+        sliceWalk(tx);
+        prefetchScan();
+
+        // when
+        long start = System.nanoTime();
+        long sliced = sliceWalk(tx);
+        long sliceMillis = (System.nanoTime() - start) / 1_000_000;
+
+        start = System.nanoTime();
+        long scanned = prefetchScan();
+        long scanMillis = (System.nanoTime() - start) / 1_000_000;
+
+        // then
+        System.out.printf("slice walk     members=%d time=%dms%n", sliced, sliceMillis);
+        System.out.printf("prefetch scan  members=%d time=%dms%n", scanned, scanMillis);
+        assertThat(scanned).isEqualTo(sliced).isEqualTo(MEMBERS);
+    }
+
+    private long sliceWalk(TransactionTemplate tx) throws InterruptedException {
+        long count = 0;
+        Pageable pageable = PageRequest.of(0, SLICE, Sort.by("id"));
+        Slice<Member> slice;
+        do {
+            Pageable current = pageable;
+            slice = tx.execute(status -> memberRepository.findSliceByAge(30, current));
+            count += process(slice.getContent());
+            pageable = slice.nextPageable();
+        } while (slice.hasNext());
+        return count;
+    }
+
+    private long prefetchScan() throws InterruptedException {
+        long count = 0;
+        try (PrefetchingWindowIterator<Member> slices = memberScanner.slicesByAge(30, SLICE)) {
+            while (slices.hasNext()) {
+                count += process(slices.next());
+            }
+        }
+        return count;
+    }
+
+    private int process(List<Member> members) throws InterruptedException {
+        Thread.sleep(WORK_MILLIS);
+        return members.size();
+    }
+}
@@ -0,0 +1,47 @@
+package study.datajpa.scan;
+
+import org.hibernate.Hibernate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.datajpa.entity.Member;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:member-scan;DB_CLOSE_DELAY=-1")
+class MemberScannerTest {
+
+    @Autowired MemberScanner memberScanner;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("나이가 같은 회원 전체를 keyset Window로 미리 읽으며 id 순서대로 스캔한다.")
+    void streamByAge() {
+        // given
+        jdbcTemplate.update("insert into team (name, member_count) values ('teamA', 0)");
+        Long teamId = jdbcTemplate.queryForObject("select max(team_id) from team", Long.class);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            rows.add(new Object[]{"member" + i, i % 5 == 0 ? 99 : 30, teamId});
+        }
+        jdbcTemplate.batchUpdate("insert into member (username, age, team_id) values (?, ?, ?)", rows);
+
+        // when
+        List<Member> members;
+        try (Stream<Member> stream = memberScanner.streamByAge(30, 40)) {
+            members = stream.toList();
+        }
+
+        // then
+        assertThat(members).hasSize(200);
+        assertThat(members).extracting(Member::getId).isSorted().doesNotHaveDuplicates();
+        assertThat(members).allMatch(member -> Hibernate.isInitialized(member.getTeam()));
+        assertThat(members.get(0).getTeam().getName()).isEqualTo("teamA");
+    }
+}
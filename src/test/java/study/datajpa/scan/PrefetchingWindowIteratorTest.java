@@ -0,0 +1,146 @@
+package study.datajpa.scan;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.data.domain.OffsetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Window;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PrefetchingWindowIteratorTest {
+
+    private static final int TOTAL = 1000;
+    private static final int SIZE = 100;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger fetches = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("이전 Window의 마지막 위치부터 이어 읽어 모든 Window를 순서대로 돌려준다.")
+    void iterate() {
+        // given
+        PrefetchingWindowIterator<Integer> iterator = new PrefetchingWindowIterator<>(
+                numbers(TOTAL), ScrollPosition.offset(), 2, executor);
+
+        // when
+        List<Integer> result = new ArrayList<>();
+        int windows = 0;
+        while (iterator.hasNext()) {
+            result.addAll(iterator.next());
+            windows++;
+        }
+
+        // then
+        assertThat(windows).isEqualTo(TOTAL / SIZE);
+        assertThat(result).isEqualTo(IntStream.range(0, TOTAL).boxed().toList());
+        assertThat(iterator.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("큐가 가득 차면 소비될 때까지 더 읽지 않는다.")
+    void boundedPrefetch() throws Exception {
+        // given
+        PrefetchingWindowIterator<Integer> iterator = new PrefetchingWindowIterator<>(
+                numbers(TOTAL), ScrollPosition.offset(), 2, executor);
+
+        // when
+        Thread.sleep(200);
+        int beforeConsume = fetches.get();
+        iterator.next();
+        Thread.sleep(200);
+        int afterConsume = fetches.get();
+        iterator.close();
+
+        // then
+        // 큐에 2개, 넣으려고 기다리는 1개
+        assertThat(beforeConsume).isEqualTo(3);
+        assertThat(afterConsume).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("읽는 중 발생한 예외는 그 위치의 Window를 꺼낼 때 던진다.")
+    void failure() {
+        // given
+        Function<ScrollPosition, Window<Integer>> numbers = numbers(TOTAL);
+        PrefetchingWindowIterator<Integer> iterator = new PrefetchingWindowIterator<>(position -> {
+            if (fetches.get() == 2) {
+                throw new IllegalStateException("connection lost");
+            }
+            return numbers.apply(position);
+        }, ScrollPosition.offset(), 2, executor);
+
+        // when
+        List<Integer> first = iterator.next();
+        List<Integer> second = iterator.next();
+
+        // then
+        assertThat(first).startsWith(0);
+        assertThat(second).startsWith(SIZE);
+        assertThatThrownBy(iterator::hasNext)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("connection lost");
+    }
+
+    @Test
+    @Timeout(5)
+    @DisplayName("읽는 중 발생한 Error도 삼키지 않고 꺼내는 쪽에 던진다.")
+    void error() {
+        // given
+        PrefetchingWindowIterator<Integer> iterator = new PrefetchingWindowIterator<>(position -> {
+            throw new StackOverflowError("mapping too deep");
+        }, ScrollPosition.offset(), 2, executor);
+
+        // when, then
+        assertThatThrownBy(iterator::hasNext)
+                .isInstanceOf(StackOverflowError.class)
+                .hasMessage("mapping too deep");
+    }
+
+    @Test
+    @DisplayName("병렬 Stream으로 나눠 처리해도 모든 원소를 순서대로 모을 수 있다.")
+    void parallelStream() {
+        // given
+        PrefetchingWindowIterator<Integer> iterator = new PrefetchingWindowIterator<>(
+                numbers(TOTAL), ScrollPosition.offset(), 2, executor);
+
+        // when
+        List<Integer> result;
+        try (Stream<Integer> stream = iterator.stream()) {
+            result = stream.parallel().map(i -> i * 2).toList();
+        }
+
+        // then
+        assertThat(result).isEqualTo(IntStream.range(0, TOTAL).map(i -> i * 2).boxed().toList());
+    }
+
+    /**
+     * 0부터 total-1까지를 SIZE개씩 offset 위치로 나눠 돌려준다.
+     */
+    private Function<ScrollPosition, Window<Integer>> numbers(int total) {
+        return position -> {
+            fetches.incrementAndGet();
+            int from = position.isInitial() ? 0 : (int) ((OffsetScrollPosition) position).getOffset() + 1;
+            int to = Math.min(from + SIZE, total);
+            List<Integer> content = IntStream.range(from, to).boxed().toList();
+            return Window.from(content, index -> ScrollPosition.offset(from + index), to < total);
+        };
+    }
+}
@@ -0,0 +1,106 @@
+package study.datajpa.snapshot;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.lookup.UsernameIndex;
+import study.datajpa.lookup.UsernameIndexLoader;
+import study.datajpa.repository.MemberRepository;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 회원 20만 명 기준으로 기동 시 UsernameIndex를 DB 전체 조회로 채우는 경우와 스냅샷으로 채우는 경우를 비교한다.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:member-snapshot-benchmark;DB_CLOSE_DELAY=-1",
+        "snapshot.enabled=true",
+        "scheduling.enabled=false",
+        "decorator.datasource.p6spy.enable-logging=false"
+})
+class MemberSnapshotBenchmarkTest {
+
+    private static final int MEMBERS = 200_000;
+
+    @TempDir
+    static Path snapshotDir;
+
+    @DynamicPropertySource
+    static void snapshot(DynamicPropertyRegistry registry) {
+        registry.add("snapshot.file", () -> snapshotDir.resolve("members.snap").toString());
+    }
+
+    @Autowired MemberSnapshotStore memberSnapshotStore;
+    @Autowired ObjectProvider<MemberSnapshotStore> snapshotStoreProvider;
+    @Autowired MemberRepository memberRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("DB 전체 조회와 스냅샷 적재의 인덱스 적재 시간을 비교한다.")
+    void warmStart() throws Exception {
+        // given
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < MEMBERS; i++) {
+            rows.add(new Object[]{"member" + i, i % 60});
+        }
+        jdbcTemplate.batchUpdate("insert into member (username, age) values (?, ?)", rows);
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+
+        // when
+        UsernameIndex cold = new UsernameIndex(true);
+        long start = System.nanoTime();
+        tx.executeWithoutResult(status -> new UsernameIndexLoader(cold, memberRepository, new NoSnapshot(), transactionManager, Runnable::run).load());
+        long fromDatabase = (System.nanoTime() - start) / 1_000_000;
+
+        start = System.nanoTime();
+        memberSnapshotStore.write();
+        long writeSnapshot = (System.nanoTime() - start) / 1_000_000;
+
+        UsernameIndex warm = new UsernameIndex(true);
+        start = System.nanoTime();
+        tx.executeWithoutResult(status -> new UsernameIndexLoader(warm, memberRepository, snapshotStoreProvider, transactionManager, task -> { }).load());
+        long fromSnapshot = (System.nanoTime() - start) / 1_000_000;
+
+        // then
+        System.out.printf("database  members=%d load=%dms%n", cold.size(), fromDatabase);
+        System.out.printf("snapshot  members=%d write=%dms load=%dms file=%dKB%n", warm.size(), writeSnapshot,
+                fromSnapshot, Files.size(snapshotDir.resolve("members.snap")) / 1024);
+    }
+
+    private static class NoSnapshot implements ObjectProvider<MemberSnapshotStore> {
+        @Override
+        public MemberSnapshotStore getObject(Object... args) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MemberSnapshotStore getIfAvailable() {
+            return null;
+        }
+
+        @Override
+        public MemberSnapshotStore getIfUnique() {
+            return null;
+        }
+
+        @Override
+        public MemberSnapshotStore getObject() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package study.datajpa.snapshot;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.lookup.UsernameIndex;
+import study.datajpa.lookup.UsernameIndexLoader;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:member-snapshot;DB_CLOSE_DELAY=-1",
+        "snapshot.enabled=true",
+        "snapshot.interval=3600000",
+        "snapshot.catch-up-margin=0s",
+        "scheduling.enabled=false"
+})
+class MemberSnapshotStoreTest {
+
+    @TempDir
+    static Path snapshotDir;
+
+    @DynamicPropertySource
+    static void snapshot(DynamicPropertyRegistry registry) {
+        registry.add("snapshot.file", () -> snapshotDir.resolve("members.snap").toString());
+    }
+
+    @Autowired MemberSnapshotStore memberSnapshotStore;
+    @Autowired ObjectProvider<MemberSnapshotStore> snapshotStoreProvider;
+    @Autowired MemberRepository memberRepository;
+    @Autowired TeamRepository teamRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("스냅샷으로 채운 인덱스는 전체를 다시 읽기 전까지 없는 이름도 DB로 조회하게 한다.")
+    void warmStart() {
+        // given
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Long[] ids = tx.execute(status -> {
+            Team team = teamRepository.save(new Team("teamA"));
+            Member kept = memberRepository.save(new Member("kept", 10, team));
+            Member renamed = memberRepository.save(new Member("before-rename", 20, team));
+            Member deleted = memberRepository.save(new Member("deleted", 30, null));
+            Member bypassed = memberRepository.save(new Member("bypassed", 40, null));
+            return new Long[]{kept.getId(), renamed.getId(), deleted.getId(), bypassed.getId()};
+        });
+        int written = memberSnapshotStore.write();
+
+        tx.executeWithoutResult(status -> memberRepository.findById(ids[1]).get().setUsername("after-rename"));
+        tx.executeWithoutResult(status -> memberRepository.save(new Member("created", 50, null)));
+        // 수정일자를 바꾸지 않은 쓰기는 스냅샷 이후 변경으로 따라잡을 수 없다.
+        jdbcTemplate.update("delete from member where member_id = ?", ids[2]);
+        jdbcTemplate.update("update member set username = 'bypassed-rename' where member_id = ?", ids[3]);
+
+        // when
+        UsernameIndex index = new UsernameIndex(true);
+        List<Runnable> background = new ArrayList<>();
+        UsernameIndexLoader loader = new UsernameIndexLoader(index, memberRepository, snapshotStoreProvider,
+                transactionManager, background::add);
+        loader.load();
+        boolean readyBeforeRebuild = index.isReady();
+        boolean missBeforeRebuild = index.mightContain("bypassed-rename");
+        background.forEach(Runnable::run);
+
+        // then
+        assertThat(written).isEqualTo(4);
+        assertThat(readyBeforeRebuild).isFalse();
+        assertThat(missBeforeRebuild).isTrue();
+        assertThat(background).hasSize(1);
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.mightContain("kept")).isTrue();
+        assertThat(index.mightContain("after-rename")).isTrue();
+        assertThat(index.mightContain("created")).isTrue();
+        assertThat(index.mightContain("bypassed-rename")).isTrue();
+        assertThat(index.mightContain("nobody")).isFalse();
+    }
+}
@@ -0,0 +1,91 @@
+package study.datajpa.snapshot;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MemberSnapshotTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T12:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("기록한 팀과 회원을 그대로 읽고 null 팀, null 이름, 한글 이름도 보존한다.")
+    void roundTrip() throws Exception {
+        // given
+        Path file = directory.resolve("members.snap");
+        write(file, NOW);
+
+        // when
+        MemberSnapshot snapshot = MemberSnapshot.open(file, Duration.ofHours(1), NOW.plusSeconds(60));
+        List<String> rows = new ArrayList<>();
+        snapshot.forEachMember((id, username, age, teamId) -> rows.add(id + ":" + username + ":" + age + ":" + teamId));
+
+        // then
+        assertThat(snapshot.createdAt()).isEqualTo(NOW);
+        assertThat(snapshot.memberCount()).isEqualTo(3);
+        assertThat(snapshot.maxMemberId()).isEqualTo(7L);
+        assertThat(snapshot.teams()).containsEntry(1L, "teamA").containsEntry(2L, null).hasSize(2);
+        assertThat(rows).containsExactly("3:member1:10:1", "7:회원2:20:null", "5:null:30:2");
+        assertThat(Files.list(directory)).containsExactly(file);
+    }
+
+    @Test
+    @DisplayName("payload가 한 바이트라도 바뀌면 체크섬 검사에서 거부한다.")
+    void corrupted() throws Exception {
+        // given
+        Path file = directory.resolve("members.snap");
+        write(file, NOW);
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.seek(MemberSnapshot.HEADER_BYTES + 3);
+            raf.write(0x7F);
+        }
+
+        // when, then
+        assertThatThrownBy(() -> MemberSnapshot.open(file, Duration.ofHours(1), NOW))
+                .isInstanceOf(MemberSnapshot.InvalidSnapshotException.class)
+                .hasMessageContaining("checksum");
+    }
+
+    @Test
+    @DisplayName("max-age보다 오래된 스냅샷과 잘린 스냅샷은 거부한다.")
+    void staleOrTruncated() throws Exception {
+        // given
+        Path file = directory.resolve("members.snap");
+        write(file, NOW);
+        Path truncated = directory.resolve("truncated.snap");
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length - 1));
+
+        // when, then
+        assertThatThrownBy(() -> MemberSnapshot.open(file, Duration.ofHours(1), NOW.plus(Duration.ofHours(2))))
+                .hasMessageContaining("stale");
+        assertThatThrownBy(() -> MemberSnapshot.open(truncated, Duration.ofHours(1), NOW))
+                .hasMessageContaining("truncated");
+    }
+
+    private static void write(Path file, Instant createdAt) throws Exception {
+        try (MemberSnapshot.Writer writer = MemberSnapshot.writer(file, createdAt)) {
+            writer.team(1L, "teamA");
+            writer.team(2L, null);
+            writer.member(3L, "member1", 10, 1L);
+            writer.member(7L, "회원2", 20, null);
+            writer.member(5L, null, 30, 2L);
+            writer.commit();
+        }
+    }
+}
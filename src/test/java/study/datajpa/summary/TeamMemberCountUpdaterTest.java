@@ -0,0 +1,89 @@
+package study.datajpa.summary;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:member-count;DB_CLOSE_DELAY=-1",
+        "team.member-count.enabled=true"
+})
+class TeamMemberCountUpdaterTest {
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired TeamRepository teamRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("팀 회원 수는 회원 저장, 팀 변경, 삭제 시 갱신된다.")
+    void memberCount() {
+        // given
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Long[] ids = tx.execute(status -> {
+            Team teamA = teamRepository.save(new Team("teamA"));
+            Team teamB = teamRepository.save(new Team("teamB"));
+            Member member1 = memberRepository.save(new Member("member1", 10, teamA));
+            Member member2 = memberRepository.save(new Member("member2", 20, teamA));
+            return new Long[]{teamA.getId(), teamB.getId(), member1.getId(), member2.getId()};
+        });
+
+        // when
+        tx.executeWithoutResult(status -> memberRepository.findById(ids[2]).get()
+                .changeTeam(teamRepository.getReferenceById(ids[1])));
+        tx.executeWithoutResult(status -> memberRepository.deleteById(ids[3]));
+
+        // then
+        assertThat(teamRepository.findById(ids[0]).get().getMemberCount()).isZero();
+        assertThat(teamRepository.findById(ids[1]).get().getMemberCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("여러 트랜잭션이 동시에 같은 팀에 회원을 추가해도 회원 수가 유실되지 않는다.")
+    void concurrentIncrements() throws Exception {
+        // given
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Long teamId = tx.execute(status -> teamRepository.save(new Team("teamC")).getId());
+        int threads = 8;
+        int perThread = 10;
+
+        // when
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        String username = "concurrent" + thread + "-" + i;
+                        tx.executeWithoutResult(status -> memberRepository.save(
+                                new Member(username, 20, teamRepository.getReferenceById(teamId))));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // then
+        assertThat(teamRepository.findById(teamId).get().getMemberCount()).isEqualTo(threads * perThread);
+        assertThat(teamRepository.countMembers(teamId)).isEqualTo(threads * perThread);
+    }
+}
@@ -0,0 +1,105 @@
+package study.datajpa.summary;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:summary;DB_CLOSE_DELAY=-1")
+class TeamSummaryTest {
+
+    @Autowired MemberRepository memberRepository;
+    @Autowired TeamRepository teamRepository;
+    @Autowired TeamSummaryRepository teamSummaryRepository;
+    @Autowired TeamSummaryChecker teamSummaryChecker;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("회원 저장, 수정, 삭제와 벌크 수정이 팀 집계에 증분 반영된다.")
+    void incrementalRefresh() {
+        // given
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Long[] ids = tx.execute(status -> {
+            Team teamA = teamRepository.save(new Team("teamA"));
+            Team teamB = teamRepository.save(new Team("teamB"));
+            memberRepository.save(new Member("member1", 19, teamA));
+            Member member2 = memberRepository.save(new Member("member2", 25, teamA));
+            Member member3 = memberRepository.save(new Member("member3", 49, teamB));
+            return new Long[]{teamA.getId(), teamB.getId(), member2.getId(), member3.getId()};
+        });
+
+        // when
+        tx.executeWithoutResult(status -> {
+            Member member2 = memberRepository.findById(ids[2]).get();
+            member2.setAge(31);
+            member2.changeTeam(teamRepository.findById(ids[1]).get());
+        });
+        tx.executeWithoutResult(status -> memberRepository.bulkAgePlus(19));
+        tx.executeWithoutResult(status -> memberRepository.deleteById(ids[3]));
+
+        // then
+        TeamSummary teamA = teamSummaryRepository.findById(ids[0]).get();
+        TeamSummary teamB = teamSummaryRepository.findById(ids[1]).get();
+        assertThat(teamA.getMemberCount()).isEqualTo(1);
+        assertThat(teamA.getAgeSum()).isEqualTo(20);
+        assertThat(teamA.getAgeHistogram()).containsExactly(0, 1, 0, 0, 0);
+        assertThat(teamB.getMemberCount()).isEqualTo(1);
+        assertThat(teamB.getAverageAge()).isEqualTo(32.0);
+        assertThat(teamB.getAgeHistogram()).containsExactly(0, 0, 1, 0, 0);
+        List<Long> repaired = tx.execute(status -> teamSummaryChecker.repair());
+        assertThat(repaired).isEmpty();
+    }
+
+    @Test
+    @DisplayName("이벤트를 거치지 않은 변경은 정합성 검사에서 바로잡는다.")
+    void repair() {
+        // given
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Long teamId = tx.execute(status -> {
+            Team team = teamRepository.save(new Team("teamC"));
+            memberRepository.save(new Member("member4", 40, team));
+            return team.getId();
+        });
+        jdbcTemplate.update("update member set age = 55 where team_id = ?", teamId);
+
+        // when
+        tx.executeWithoutResult(status -> assertThat(teamSummaryChecker.repair()).containsExactly(teamId));
+
+        // then
+        TeamSummary summary = teamSummaryRepository.findById(teamId).get();
+        assertThat(summary.getAgeSum()).isEqualTo(55);
+        assertThat(summary.getAgeHistogram()).containsExactly(0, 0, 0, 0, 1);
+    }
+
+    @Test
+    @DisplayName("집계 행이 없는 팀의 변경은 집계 행을 만들지 않고 정합성 검사가 만든다.")
+    void missingSummaryRow() {
+        // given
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        jdbcTemplate.update("insert into team (name, member_count) values ('teamD', 0)");
+        Long teamId = jdbcTemplate.queryForObject("select team_id from team where name = 'teamD'", Long.class);
+
+        // when
+        tx.executeWithoutResult(status -> memberRepository.save(
+                new Member("member5", 25, teamRepository.findById(teamId).get())));
+
+        // then
+        assertThat(teamSummaryRepository.findById(teamId)).isEmpty();
+        tx.executeWithoutResult(status -> assertThat(teamSummaryChecker.repair()).containsExactly(teamId));
+        TeamSummary summary = teamSummaryRepository.findById(teamId).get();
+        assertThat(summary.getMemberCount()).isEqualTo(1);
+        assertThat(summary.getAgeHistogram()).containsExactly(0, 1, 0, 0, 0);
+    }
+}
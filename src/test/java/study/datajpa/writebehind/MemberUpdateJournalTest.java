@@ -0,0 +1,77 @@
+package study.datajpa.writebehind;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MemberUpdateJournalTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("닫히지 않은 저널은 다음 기동 때 쓴 순서대로 재생되고 끊긴 마지막 줄은 버린다.")
+    void replayAfterCrash() throws Exception {
+        // given
+        MemberUpdateJournal journal = new MemberUpdateJournal(directory, false);
+        journal.append(new MemberUpdate(1L, 20, null, "auditor", NOW));
+        journal.append(new MemberUpdate(2L, null, 7L, null, NOW));
+        journal.append(new MemberUpdate(1L, 21, null, "auditor", NOW.plusSeconds(1)));
+        try (var files = Files.list(directory)) {
+            Path segment = files.findFirst().orElseThrow();
+            Files.writeString(segment, "1a2b3c\t3\t40", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        }
+
+        // when
+        List<MemberUpdate> replayed = new MemberUpdateJournal(directory, false).replay();
+
+        // then
+        assertThat(replayed).containsExactly(
+                new MemberUpdate(1L, 20, null, "auditor", NOW),
+                new MemberUpdate(2L, null, 7L, null, NOW),
+                new MemberUpdate(1L, 21, null, "auditor", NOW.plusSeconds(1)));
+    }
+
+    @Test
+    @DisplayName("반영이 끝난 세그먼트를 지우면 다음 기동 때 재생할 수정이 없다.")
+    void deleteClosed() throws Exception {
+        // given
+        MemberUpdateJournal journal = new MemberUpdateJournal(directory, true);
+        journal.append(new MemberUpdate(1L, 20, null, null, NOW));
+        journal.rotate();
+        journal.append(new MemberUpdate(2L, 30, null, null, NOW));
+
+        // when
+        journal.deleteClosed();
+        journal.close();
+
+        // then
+        assertThat(new MemberUpdateJournal(directory, false).replay())
+                .containsExactly(new MemberUpdate(2L, 30, null, null, NOW));
+    }
+
+    @Test
+    @DisplayName("같은 회원의 수정은 바뀐 값만 마지막 값으로 합쳐진다.")
+    void merge() {
+        // given
+        MemberUpdate age = new MemberUpdate(1L, 20, null, "a", NOW);
+        MemberUpdate team = new MemberUpdate(1L, null, 3L, "b", NOW.plusSeconds(1));
+
+        // when
+        MemberUpdate merged = age.merge(team);
+
+        // then
+        assertThat(merged).isEqualTo(new MemberUpdate(1L, 20, 3L, "b", NOW.plusSeconds(1)));
+    }
+}
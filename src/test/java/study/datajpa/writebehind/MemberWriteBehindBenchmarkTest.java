@@ -0,0 +1,74 @@
+package study.datajpa.writebehind;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.repository.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * 회원 200명에게 나이 수정 10000건이 몰릴 때 수정마다 커밋하는 경우와 write-behind로 모아 반영하는 경우를 비교한다.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:write-behind-benchmark;DB_CLOSE_DELAY=-1",
+        "write-behind.enabled=true",
+        "write-behind.flush-interval=3600000",
+        "write-behind.journal-dir=build/write-behind-benchmark",
+        "decorator.datasource.p6spy.enable-logging=false"
+})
+class MemberWriteBehindBenchmarkTest {
+
+    private static final int MEMBERS = 200;
+    private static final int UPDATES = 10_000;
+
+    @Autowired MemberWriteBehind memberWriteBehind;
+    @Autowired MemberRepository memberRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @Test
+    @DisplayName("수정마다 커밋과 write-behind의 처리 시간을 비교한다.")
+    void updates() {
+        // given
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < MEMBERS; i++) {
+            rows.add(new Object[]{"member" + i, 20});
+        }
+        jdbcTemplate.batchUpdate("insert into member (username, age) values (?, ?)", rows);
+        long[] ids = jdbcTemplate.queryForList("select member_id from member", Long.class).stream()
+                .mapToLong(Long::longValue).toArray();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+
+        // when
+        SplittableRandom random = new SplittableRandom(42);
+        long start = System.nanoTime();
+        for (int i = 0; i < UPDATES; i++) {
+            long id = ids[random.nextInt(ids.length)];
+            int age = random.nextInt(20, 60);
+            tx.executeWithoutResult(status -> memberRepository.findById(id).get().setAge(age));
+        }
+        long perCommit = (System.nanoTime() - start) / 1_000_000;
+
+        start = System.nanoTime();
+        for (int i = 0; i < UPDATES; i++) {
+            memberWriteBehind.updateAge(ids[random.nextInt(ids.length)], random.nextInt(20, 60));
+        }
+        long enqueued = (System.nanoTime() - start) / 1_000_000;
+        int applied = memberWriteBehind.flush();
+        long writeBehind = (System.nanoTime() - start) / 1_000_000;
+
+        // then
+        System.out.printf("per-commit    updates=%d time=%dms%n", UPDATES, perCommit);
+        System.out.printf("write-behind  updates=%d enqueue=%dms total=%dms applied=%d rows%n",
+                UPDATES, enqueued, writeBehind, applied);
+    }
+}
@@ -0,0 +1,160 @@
+package study.datajpa.writebehind;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.datajpa.entity.AuditClock;
+import study.datajpa.entity.Member;
+import study.datajpa.entity.Team;
+import study.datajpa.repository.MemberRepository;
+import study.datajpa.repository.TeamRepository;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:write-behind;DB_CLOSE_DELAY=-1",
+        "write-behind.enabled=true",
+        "write-behind.flush-interval=3600000",
+        "team.member-count.enabled=true"
+})
+class MemberWriteBehindTest {
+
+    @TempDir
+    static Path journalDir;
+
+    @DynamicPropertySource
+    static void journal(DynamicPropertyRegistry registry) {
+        registry.add("write-behind.journal-dir", () -> journalDir.toString());
+    }
+
+    @Autowired MemberWriteBehind memberWriteBehind;
+    @Autowired MemberRepository memberRepository;
+    @Autowired TeamRepository teamRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired ApplicationEventPublisher eventPublisher;
+    @Autowired AuditorAware<String> auditorAware;
+    @Autowired AuditClock auditClock;
+
+    @Test
+    @DisplayName("같은 회원의 수정은 하나로 합쳐져 반영되고 팀 회원 수, 팀 집계, 아웃박스도 함께 갱신된다.")
+    void coalesceAndFlush() {
+        // given
+        Long[] ids = new TransactionTemplate(transactionManager).execute(status -> {
+            Team teamA = teamRepository.save(new Team("teamA"));
+            Team teamB = teamRepository.save(new Team("teamB"));
+            Member member = memberRepository.save(new Member("member1", 10, teamA));
+            return new Long[]{teamA.getId(), teamB.getId(), member.getId()};
+        });
+
+        // when
+        memberWriteBehind.updateAge(ids[2], 11);
+        memberWriteBehind.updateAge(ids[2], 12);
+        memberWriteBehind.changeTeam(ids[2], ids[1]);
+        memberWriteBehind.updateAge(ids[2], 13);
+        int pending = memberWriteBehind.pending();
+        Integer ageBeforeFlush = jdbcTemplate.queryForObject("select age from member where member_id = ?", Integer.class, ids[2]);
+        int applied = memberWriteBehind.flush();
+
+        // then
+        assertThat(pending).isEqualTo(1);
+        assertThat(ageBeforeFlush).isEqualTo(10);
+        assertThat(applied).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForMap("select age, team_id from member where member_id = ?", ids[2]))
+                .containsEntry("AGE", 13).containsEntry("TEAM_ID", ids[1]);
+        assertThat(memberCount(ids[0])).isZero();
+        assertThat(memberCount(ids[1])).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("select age_sum from team_summary where team_id = ?", Long.class, ids[1]))
+                .isEqualTo(13);
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from outbox_event where aggregate_type = 'Member' and aggregate_id = ? and event_type = 'UPDATED'",
+                Long.class, ids[2])).isEqualTo(1);
+        assertThat(memberWriteBehind.pending()).isZero();
+    }
+
+    @Test
+    @DisplayName("기동 시 저널에 남아있던 수정을 DB에 반영한다.")
+    void recoverFromJournal(@TempDir Path crashed) throws Exception {
+        // given
+        Long memberId = new TransactionTemplate(transactionManager).execute(status ->
+                memberRepository.save(new Member("member2", 20, null)).getId());
+        MemberUpdateJournal journal = new MemberUpdateJournal(crashed, true);
+        journal.append(new MemberUpdate(memberId, 21, null, null, LocalDateTime.now()));
+        journal.append(new MemberUpdate(memberId, 22, null, null, LocalDateTime.now()));
+
+        // when
+        MemberWriteBehind restarted = new MemberWriteBehind(jdbcTemplate, transactionManager, eventPublisher,
+                auditorAware, auditClock, crashed.toString(), true, 100);
+        int pending = restarted.pending();
+        restarted.recover();
+
+        // then
+        assertThat(pending).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("select age from member where member_id = ?", Integer.class, memberId))
+                .isEqualTo(22);
+        assertThat(new MemberUpdateJournal(crashed, false).replay()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("저널의 수정보다 나중에 다른 경로로 수정된 회원은 재생해도 덮어쓰지 않는다.")
+    void skipStaleReplay(@TempDir Path crashed) throws Exception {
+        // given
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Long memberId = tx.execute(status -> memberRepository.save(new Member("member4", 40, null)).getId());
+        MemberUpdateJournal journal = new MemberUpdateJournal(crashed, true);
+        journal.append(new MemberUpdate(memberId, 41, null, null, LocalDateTime.now().minusMinutes(1)));
+        tx.executeWithoutResult(status -> memberRepository.findById(memberId).get().setAge(45));
+
+        // when
+        MemberWriteBehind restarted = new MemberWriteBehind(jdbcTemplate, transactionManager, eventPublisher,
+                auditorAware, auditClock, crashed.toString(), true, 100);
+        int applied = restarted.flush();
+
+        // then
+        assertThat(applied).isZero();
+        assertThat(jdbcTemplate.queryForObject("select age from member where member_id = ?", Integer.class, memberId))
+                .isEqualTo(45);
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from outbox_event where aggregate_type = 'Member' and aggregate_id = ? and event_type = 'UPDATED'",
+                Long.class, memberId)).isEqualTo(1);
+        assertThat(new MemberUpdateJournal(crashed, false).replay()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("버퍼가 차서 호출한 트랜잭션 안에서 반영돼도 그 트랜잭션이 롤백되면 반영은 남는다.")
+    void flushOnCallerTransaction(@TempDir Path journalDir) throws Exception {
+        // given
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        Long memberId = tx.execute(status -> memberRepository.save(new Member("member3", 30, null)).getId());
+        MemberWriteBehind writeBehind = new MemberWriteBehind(jdbcTemplate, transactionManager, eventPublisher,
+                auditorAware, auditClock, journalDir.toString(), false, 1);
+
+        // when
+        tx.executeWithoutResult(status -> {
+            writeBehind.updateAge(memberId, 31);
+            status.setRollbackOnly();
+        });
+
+        // then
+        assertThat(jdbcTemplate.queryForObject("select age from member where member_id = ?", Integer.class, memberId))
+                .isEqualTo(31);
+        assertThat(writeBehind.pending()).isZero();
+        assertThat(new MemberUpdateJournal(journalDir, false).replay()).isEmpty();
+    }
+
+    private Integer memberCount(Long teamId) {
+        return jdbcTemplate.queryForObject("select member_count from team where team_id = ?", Integer.class, teamId);
+    }
+}